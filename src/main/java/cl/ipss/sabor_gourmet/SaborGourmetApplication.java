@@ -2,8 +2,10 @@ package cl.ipss.sabor_gourmet;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class SaborGourmetApplication {
 
 	public static void main(String[] args) {
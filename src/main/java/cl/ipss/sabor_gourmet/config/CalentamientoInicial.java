@@ -0,0 +1,44 @@
+package cl.ipss.sabor_gourmet.config;
+
+import cl.ipss.sabor_gourmet.service.EstadisticasService;
+import cl.ipss.sabor_gourmet.service.IndiceOcupacion;
+import cl.ipss.sabor_gourmet.service.MesaService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Deja listas las cachés en memoria apenas arranca la aplicación: el catálogo de mesas,
+ * la ocupación de hoy y los contadores del panel. Así la primera solicitud no paga
+ * las consultas de carga, que con una base persistente ya traen datos de sesiones anteriores.
+ */
+@Component
+public class CalentamientoInicial {
+
+    private final MesaService mesaService;
+    private final IndiceOcupacion indiceOcupacion;
+    private final EstadisticasService estadisticasService;
+
+    public CalentamientoInicial(MesaService mesaService, IndiceOcupacion indiceOcupacion,
+                                EstadisticasService estadisticasService) {
+        this.mesaService = mesaService;
+        this.indiceOcupacion = indiceOcupacion;
+        this.estadisticasService = estadisticasService;
+    }
+
+    @EventListener
+    public void alEstarLista(ApplicationReadyEvent evento) {
+        long inicio = System.nanoTime();
+        int mesas = mesaService.listarTodas().size();
+        indiceOcupacion.precargar(LocalDate.now());
+        estadisticasService.obtener();
+        long calentamientoMs = Duration.ofNanos(System.nanoTime() - inicio).toMillis();
+
+        Duration arranque = evento.getTimeTaken();
+        System.out.printf("%n✓ Aplicación lista en %d ms (calentamiento: %d ms, %d mesas en caché)%n%n",
+                arranque != null ? arranque.toMillis() : -1, calentamientoMs, mesas);
+    }
+}
@@ -0,0 +1,30 @@
+package cl.ipss.sabor_gourmet.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registra el limitador de concurrencia cuando sabor.concurrencia.maximo es mayor que cero.
+ * En modo de hilos de plataforma el tope lo pone el pool de Tomcat y el limitador queda apagado;
+ * el perfil "virtual" lo enciende.
+ */
+@Configuration
+@ConditionalOnExpression("${sabor.concurrencia.maximo:0} > 0")
+public class ConcurrenciaConfig {
+
+    @Bean
+    public FilterRegistrationBean<LimiteConcurrenciaFilter> limiteConcurrencia(
+            @Value("${sabor.concurrencia.maximo}") int maximo,
+            @Value("${sabor.concurrencia.espera-ms:1000}") long esperaMs,
+            MeterRegistry meterRegistry) {
+        FilterRegistrationBean<LimiteConcurrenciaFilter> registro =
+                new FilterRegistrationBean<>(new LimiteConcurrenciaFilter(maximo, esperaMs, meterRegistry));
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registro;
+    }
+}
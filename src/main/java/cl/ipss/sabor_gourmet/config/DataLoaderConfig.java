@@ -9,30 +9,39 @@ import cl.ipss.sabor_gourmet.repository.ReservaRepository;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.List;
 
 /**
  * Configuración para cargar datos iniciales en la base de datos.
  * Se ejecuta al iniciar la aplicación y llena las tablas con datos de ejemplo.
+ * Con una base persistente que ya tiene mesas no hace nada, así un reinicio
+ * conserva los datos y no paga la siembra otra vez.
+ * Con el perfil "generador" se reemplaza por GeneradorDatos, que crea datos a escala de producción.
  */
 @Configuration
 public class DataLoaderConfig {
 
     @Bean
+    @Profile("!generador")
     public CommandLineRunner loadData(ClienteRepository clienteRepository,
                                       MesaRepository mesaRepository,
                                       ReservaRepository reservaRepository) {
         return args -> {
+            if (mesaRepository.count() > 0) {
+                System.out.println("\n✓ Base de datos con datos existentes: se omite la carga inicial\n");
+                return;
+            }
+
             // Crear clientes de ejemplo
             Cliente cliente1 = new Cliente("Juan García", "juan.garcia@email.com", "912345678");
             Cliente cliente2 = new Cliente("María López", "maria.lopez@email.com", "987654321");
             Cliente cliente3 = new Cliente("Pedro Martínez", "pedro.martinez@email.com", "945612378");
 
-            clienteRepository.save(cliente1);
-            clienteRepository.save(cliente2);
-            clienteRepository.save(cliente3);
+            clienteRepository.saveAll(List.of(cliente1, cliente2, cliente3));
 
             // Crear mesas de ejemplo
             Mesa mesa1 = new Mesa(1, 2, true);
@@ -41,11 +50,7 @@ public class DataLoaderConfig {
             Mesa mesa4 = new Mesa(4, 8, true);
             Mesa mesa5 = new Mesa(5, 10, false); // Inactiva por mantenimiento
 
-            mesaRepository.save(mesa1);
-            mesaRepository.save(mesa2);
-            mesaRepository.save(mesa3);
-            mesaRepository.save(mesa4);
-            mesaRepository.save(mesa5);
+            mesaRepository.saveAll(List.of(mesa1, mesa2, mesa3, mesa4, mesa5));
 
             // Crear reservas de ejemplo para hoy
             LocalDate hoy = LocalDate.now();
@@ -53,9 +58,7 @@ public class DataLoaderConfig {
             Reserva reserva2 = new Reserva(hoy, LocalTime.of(20, 00), 4, cliente2, mesa2);
             Reserva reserva3 = new Reserva(hoy.plusDays(1), LocalTime.of(19, 00), 6, cliente3, mesa3);
 
-            reservaRepository.save(reserva1);
-            reservaRepository.save(reserva2);
-            reservaRepository.save(reserva3);
+            reservaRepository.saveAll(List.of(reserva1, reserva2, reserva3));
 
             System.out.println("\n✓ Base de datos inicializada con datos de ejemplo");
             System.out.println("  - 3 clientes creados");
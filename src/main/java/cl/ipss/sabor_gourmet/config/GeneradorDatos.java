@@ -0,0 +1,341 @@
+package cl.ipss.sabor_gourmet.config;
+
+import cl.ipss.sabor_gourmet.model.Mesa;
+import cl.ipss.sabor_gourmet.repository.MesaRepository;
+import cl.ipss.sabor_gourmet.service.PoliticaDuracion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generador de datos sintéticos a escala de producción, activo con el perfil "generador"
+ * en lugar de la carga de ejemplo de DataLoaderConfig.
+ * Crea mesas de capacidades variadas, clientes con nombres realistas (unos pocos vuelven
+ * mucho más que el resto) y reservas repartidas entre fechas pasadas y futuras, con más
+ * movimiento los fines de semana y en las horas de almuerzo y cena.
+ * Las reservas activas de una mesa nunca se solapan, respetando la duración de PoliticaDuracion.
+ * Inserta con JDBC por lotes desde varios hilos; cada día usa su propia semilla, así los
+ * datos generados son los mismos con cualquier cantidad de hilos.
+ */
+@Component
+@Profile("generador")
+public class GeneradorDatos implements CommandLineRunner {
+
+    private static final int LOTE = 5_000;
+    private static final int DIAS_POR_TAREA = 7;
+    private static final int INTENTOS_POR_RESERVA = 8;
+    /** Reservas de un día promedio por mesa; un sábado lleva bastante más y un lunes bastante menos. */
+    private static final double RESERVAS_POR_MESA_DIA = 2.5;
+    private static final double MESAS_INACTIVAS = 0.05;
+    private static final int[] CAPACIDADES = {2, 2, 2, 4, 4, 4, 4, 6, 6, 8, 10, 12};
+
+    /** Horas de inicio: de 12:00 a 22:00 cada media hora, con picos al almuerzo y a la cena. */
+    private static final int MINUTOS_FRANJA = 30;
+    private static final LocalTime PRIMERA_HORA = LocalTime.of(12, 0);
+    private static final double[] PESOS_HORA = {
+            3, 6, 8, 8, 6, 3, 1, 1, 1, 1, 2, 4, 6, 8, 10, 10, 8, 6, 4, 2, 1};
+    /** Peso de cada día de la semana, de lunes a domingo. */
+    private static final double[] PESOS_DIA = {0.6, 0.7, 0.8, 0.9, 1.3, 1.5, 1.2};
+    /** Tamaño de los grupos: el índice es el número de personas. */
+    private static final double[] PESOS_PERSONAS = {0, 5, 40, 12, 22, 6, 8, 2, 3, 0.5, 1, 0.2, 0.3};
+
+    private static final String[] NOMBRES = {
+            "Juan", "María", "Pedro", "Camila", "José", "Valentina", "Diego", "Fernanda", "Matías", "Catalina",
+            "Sebastián", "Javiera", "Felipe", "Constanza", "Tomás", "Francisca", "Benjamín", "Antonia", "Nicolás", "Sofía"};
+    private static final String[] APELLIDOS = {
+            "García", "López", "Martínez", "González", "Muñoz", "Rojas", "Díaz", "Pérez", "Soto", "Contreras",
+            "Silva", "Morales", "Sepúlveda", "Torres", "Araya", "Flores", "Espinoza", "Valenzuela", "Castillo", "Fuentes"};
+    private static final String[] NOMBRES_EMAIL = paraEmail(NOMBRES);
+    private static final String[] APELLIDOS_EMAIL = paraEmail(APELLIDOS);
+
+    private static final String INSERT_MESA = "insert into mesas (id, numero, capacidad, activa)"
+            + " values (next value for mesas_seq, ?, ?, ?)";
+    private static final String INSERT_CLIENTE = "insert into clientes (id, nombre, email, telefono)"
+            + " values (next value for clientes_seq, ?, ?, ?)";
+    private static final String INSERT_RESERVA = "insert into reservas"
+            + " (id, fecha, hora, numero_personas, duracion_minutos, estado, vigente, cliente_id, mesa_id)"
+            + " values (next value for reservas_seq, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MesaRepository mesaRepository;
+    private final PoliticaDuracion politicaDuracion;
+    private final int mesas;
+    private final int clientes;
+    private final int reservas;
+    private final double proporcionFuturas;
+    private final double cancelaciones;
+    private final long semilla;
+    private final int hilos;
+
+    public GeneradorDatos(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                          MesaRepository mesaRepository, PoliticaDuracion politicaDuracion,
+                          @Value("${sabor.generador.mesas:200}") int mesas,
+                          @Value("${sabor.generador.clientes:200000}") int clientes,
+                          @Value("${sabor.generador.reservas:1000000}") int reservas,
+                          @Value("${sabor.generador.proporcion-futuras:0.1}") double proporcionFuturas,
+                          @Value("${sabor.generador.cancelaciones:0.12}") double cancelaciones,
+                          @Value("${sabor.generador.semilla:42}") long semilla,
+                          @Value("${sabor.generador.hilos:0}") int hilos) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.mesaRepository = mesaRepository;
+        this.politicaDuracion = politicaDuracion;
+        this.mesas = mesas;
+        this.clientes = clientes;
+        this.reservas = reservas;
+        this.proporcionFuturas = proporcionFuturas;
+        this.cancelaciones = cancelaciones;
+        this.semilla = semilla;
+        this.hilos = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Email del cliente generado con un índice; es único y se puede volver a calcular
+     * para buscar clientes conocidos sin consultar la base de datos.
+     * @param indice índice del cliente, desde 0
+     * @return el email del cliente
+     */
+    public static String email(int indice) {
+        return NOMBRES_EMAIL[indice % NOMBRES.length] + "." + APELLIDOS_EMAIL[(indice / NOMBRES.length) % APELLIDOS.length]
+                + indice + "@correo.cl";
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (mesaRepository.count() > 0) {
+            System.out.println("\n✓ Base de datos con datos existentes: se omite el generador\n");
+            return;
+        }
+        long inicio = System.nanoTime();
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        try {
+            insertarMesas();
+            esperar(insertarClientes(ejecutor));
+
+            List<Mesa> activas = mesaRepository.findAll().stream()
+                    .filter(Mesa::getActiva)
+                    .sorted(Comparator.comparing(Mesa::getCapacidad))
+                    .toList();
+            long[] clienteIds = jdbcTemplate.queryForList("select id from clientes order by id", Long.class)
+                    .stream().mapToLong(Long::longValue).toArray();
+
+            if (activas.isEmpty()) {
+                System.out.println("\n✓ Datos generados sin reservas: no hay mesas activas\n");
+                return;
+            }
+            int dias = Math.max(1, (int) Math.ceil(reservas / (activas.size() * RESERVAS_POR_MESA_DIA)));
+            LocalDate primerDia = LocalDate.now().minusDays(dias - Math.round(dias * proporcionFuturas));
+            long creadas = esperar(insertarReservas(ejecutor, activas, clienteIds, primerDia, dias));
+
+            System.out.printf("%n✓ Datos generados en %.1f s con %d hilos%n", (System.nanoTime() - inicio) / 1e9, hilos);
+            System.out.printf("  - %d mesas (%d activas)%n", mesas, activas.size());
+            System.out.printf("  - %d clientes%n", clientes);
+            System.out.printf("  - %d reservas entre %s y %s%n%n", creadas, primerDia, primerDia.plusDays(dias - 1));
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    private void insertarMesas() {
+        Integer ultimoNumero = jdbcTemplate.queryForObject("select max(numero) from mesas", Integer.class);
+        int primerNumero = ultimoNumero != null ? ultimoNumero + 1 : 1;
+        SplittableRandom random = new SplittableRandom(semilla);
+        List<Object[]> filas = new ArrayList<>();
+        for (int i = 0; i < mesas; i++) {
+            filas.add(new Object[]{primerNumero + i, CAPACIDADES[random.nextInt(CAPACIDADES.length)],
+                    random.nextDouble() >= MESAS_INACTIVAS});
+        }
+        insertar(INSERT_MESA, filas);
+    }
+
+    private List<Future<Long>> insertarClientes(ExecutorService ejecutor) {
+        List<Future<Long>> tareas = new ArrayList<>();
+        for (int desde = 0; desde < clientes; desde += LOTE) {
+            int primero = desde;
+            int ultimo = Math.min(clientes, desde + LOTE);
+            tareas.add(ejecutor.submit(() -> {
+                List<Object[]> filas = new ArrayList<>(ultimo - primero);
+                for (int i = primero; i < ultimo; i++) {
+                    filas.add(new Object[]{
+                            NOMBRES[i % NOMBRES.length] + " " + APELLIDOS[(i / NOMBRES.length) % APELLIDOS.length],
+                            email(i),
+                            "9" + (10_000_000 + i % 90_000_000)});
+                }
+                insertar(INSERT_CLIENTE, filas);
+                return (long) filas.size();
+            }));
+        }
+        return tareas;
+    }
+
+    /**
+     * Reparte las reservas entre los días según el peso de cada día de la semana y
+     * encola una tarea por cada semana de fechas.
+     */
+    private List<Future<Long>> insertarReservas(ExecutorService ejecutor, List<Mesa> activas, long[] clienteIds,
+                                                LocalDate primerDia, int dias) {
+        double[] acumulado = new double[dias + 1];
+        for (int d = 0; d < dias; d++) {
+            acumulado[d + 1] = acumulado[d] + PESOS_DIA[primerDia.plusDays(d).getDayOfWeek().getValue() - 1];
+        }
+        int[] cuotas = new int[dias];
+        for (int d = 0; d < dias; d++) {
+            // Redondear los acumulados hace que las cuotas sumen exactamente el total pedido
+            cuotas[d] = (int) (Math.round(reservas * acumulado[d + 1] / acumulado[dias])
+                    - Math.round(reservas * acumulado[d] / acumulado[dias]));
+        }
+        LocalDate hoy = LocalDate.now();
+
+        List<Future<Long>> tareas = new ArrayList<>();
+        for (int desde = 0; desde < dias; desde += DIAS_POR_TAREA) {
+            int primero = desde;
+            int ultimo = Math.min(dias, desde + DIAS_POR_TAREA);
+            tareas.add(ejecutor.submit(() -> {
+                List<Object[]> filas = new ArrayList<>(LOTE);
+                long creadas = 0;
+                for (int d = primero; d < ultimo; d++) {
+                    LocalDate fecha = primerDia.plusDays(d);
+                    SplittableRandom random = new SplittableRandom(semilla ^ (fecha.toEpochDay() * 0x9E3779B97F4A7C15L));
+                    creadas += generarDia(fecha, fecha.isBefore(hoy), cuotas[d], activas, clienteIds, random, filas);
+                }
+                insertar(INSERT_RESERVA, filas);
+                return creadas;
+            }));
+        }
+        return tareas;
+    }
+
+    /**
+     * Agrega a las filas las reservas de un día. Cada reserva elige tamaño de grupo, una mesa
+     * donde quepa (de preferencia la más justa) y una hora; si choca con otra reserva activa
+     * de esa mesa vuelve a intentar, y tras varios intentos fallidos se descarta.
+     * @return cantidad de reservas agregadas
+     */
+    private int generarDia(LocalDate fecha, boolean pasada, int cuota, List<Mesa> activas, long[] clienteIds,
+                           SplittableRandom random, List<Object[]> filas) {
+        boolean[][] ocupadas = new boolean[activas.size()][PESOS_HORA.length + 6];
+        Date fechaSql = Date.valueOf(fecha);
+        int capacidadMaxima = activas.get(activas.size() - 1).getCapacidad();
+        int agregadas = 0;
+        for (int n = 0; n < cuota; n++) {
+            for (int intento = 0; intento < INTENTOS_POR_RESERVA; intento++) {
+                int personas = Math.min(elegir(PESOS_PERSONAS, random), capacidadMaxima);
+                int primeraQueCabe = primeraConCapacidad(activas, personas);
+                double u = random.nextDouble();
+                int m = primeraQueCabe + (int) ((activas.size() - primeraQueCabe) * u * u);
+                Mesa mesa = activas.get(m);
+                int franja = elegir(PESOS_HORA, random);
+                int duracion = politicaDuracion.duracionPara(mesa, personas);
+                int franjas = Math.min((duracion + MINUTOS_FRANJA - 1) / MINUTOS_FRANJA, ocupadas[m].length - franja);
+                // Las pasadas se cancelan menos: muchas cancelaciones futuras aún no ocurren
+                boolean cancelada = random.nextDouble() < (pasada ? cancelaciones : cancelaciones / 2);
+                if (!cancelada && !libre(ocupadas[m], franja, franjas)) {
+                    continue;
+                }
+                if (!cancelada) {
+                    for (int f = franja; f < franja + franjas; f++) {
+                        ocupadas[m][f] = true;
+                    }
+                }
+                double v = random.nextDouble();
+                filas.add(new Object[]{
+                        fechaSql,
+                        Time.valueOf(PRIMERA_HORA.plusMinutes((long) MINUTOS_FRANJA * franja)),
+                        personas,
+                        duracion,
+                        cancelada ? "CANCELADA" : "ACTIVA",
+                        cancelada ? null : Boolean.TRUE,
+                        clienteIds[(int) (clienteIds.length * v * v)],
+                        mesa.getId()});
+                agregadas++;
+                if (filas.size() == LOTE) {
+                    insertar(INSERT_RESERVA, filas);
+                    filas.clear();
+                }
+                break;
+            }
+        }
+        return agregadas;
+    }
+
+    private void insertar(String sql, List<Object[]> filas) {
+        if (!filas.isEmpty()) {
+            transactionTemplate.executeWithoutResult(estado -> jdbcTemplate.batchUpdate(sql, filas));
+        }
+    }
+
+    private static boolean libre(boolean[] ocupadas, int desde, int franjas) {
+        for (int f = desde; f < desde + franjas; f++) {
+            if (ocupadas[f]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int primeraConCapacidad(List<Mesa> porCapacidad, int personas) {
+        int bajo = 0;
+        int alto = porCapacidad.size() - 1;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (porCapacidad.get(medio).getCapacidad() < personas) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    /**
+     * Elige un índice al azar con probabilidad proporcional a su peso.
+     */
+    private static int elegir(double[] pesos, SplittableRandom random) {
+        double total = 0;
+        for (double peso : pesos) {
+            total += peso;
+        }
+        double r = random.nextDouble() * total;
+        for (int i = 0; i < pesos.length; i++) {
+            r -= pesos[i];
+            if (r < 0) {
+                return i;
+            }
+        }
+        return pesos.length - 1;
+    }
+
+    private static long esperar(List<Future<Long>> tareas) throws InterruptedException, ExecutionException {
+        long total = 0;
+        for (Future<Long> tarea : tareas) {
+            total += tarea.get();
+        }
+        return total;
+    }
+
+    private static String[] paraEmail(String[] nombres) {
+        String[] resultado = new String[nombres.length];
+        for (int i = 0; i < nombres.length; i++) {
+            resultado[i] = Normalizer.normalize(nombres[i], Normalizer.Form.NFD).replaceAll("\\p{M}", "").toLowerCase();
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,65 @@
+package cl.ipss.sabor_gourmet.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita cuántas solicitudes se atienden a la vez.
+ * Con hilos virtuales Tomcat ya no pone un tope a la concurrencia, y sin este filtro
+ * miles de solicitudes quedarían esperando una conexión del pool de Hikari.
+ * Las que no consiguen turno dentro del tiempo de espera reciben 503.
+ */
+public class LimiteConcurrenciaFilter extends OncePerRequestFilter {
+
+    private final Semaphore permisos;
+    private final long esperaMs;
+    private final Counter rechazadas;
+
+    public LimiteConcurrenciaFilter(int maximo, long esperaMs, MeterRegistry meterRegistry) {
+        this.permisos = new Semaphore(maximo);
+        this.esperaMs = esperaMs;
+        this.rechazadas = meterRegistry.counter("sabor.concurrencia.rechazadas");
+        Gauge.builder("sabor.concurrencia.en.curso", permisos, p -> maximo - p.availablePermits())
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean adquirido;
+        try {
+            adquirido = permisos.tryAcquire(esperaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            adquirido = false;
+        }
+        if (!adquirido) {
+            rechazadas.increment();
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Servidor ocupado, intente nuevamente");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permisos.release();
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String ruta = request.getRequestURI().substring(request.getContextPath().length());
+        return ruta.startsWith("/actuator") || ruta.startsWith("/h2-console");
+    }
+}
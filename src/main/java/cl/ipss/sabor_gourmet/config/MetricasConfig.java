@@ -0,0 +1,56 @@
+package cl.ipss.sabor_gourmet.config;
+
+import cl.ipss.sabor_gourmet.service.ClienteService;
+import cl.ipss.sabor_gourmet.service.EstadisticasService;
+import cl.ipss.sabor_gourmet.service.MesaService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Métricas propias de la aplicación expuestas en /actuator/prometheus.
+ * Los timers de servicios vienen de @Timed; aquí se registran los valores
+ * que ya mantienen los servicios en memoria, sin consultar la base de datos.
+ */
+@Configuration
+public class MetricasConfig {
+
+    @Bean
+    public MeterBinder metricasReservas(EstadisticasService estadisticasService) {
+        return registry -> Gauge.builder("sabor.reservas.activas",
+                        estadisticasService, EstadisticasService::reservasHoyEnCache)
+                .description("Reservas activas del día de hoy; NaN hasta que el panel calcule la foto del día")
+                .tag("dia", "hoy")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder metricasCacheMesas(MesaService mesaService) {
+        return registry -> {
+            FunctionCounter.builder("sabor.cache.mesas", mesaService,
+                            servicio -> servicio.estadisticasCache().getAciertos())
+                    .tag("resultado", "acierto")
+                    .register(registry);
+            FunctionCounter.builder("sabor.cache.mesas", mesaService,
+                            servicio -> servicio.estadisticasCache().getFallos())
+                    .tag("resultado", "fallo")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder metricasCacheClientes(ClienteService clienteService) {
+        return registry -> {
+            FunctionCounter.builder("sabor.cache.clientes", clienteService,
+                            servicio -> servicio.estadisticasCache().getAciertos())
+                    .tag("resultado", "acierto")
+                    .register(registry);
+            FunctionCounter.builder("sabor.cache.clientes", clienteService,
+                            servicio -> servicio.estadisticasCache().getFallos())
+                    .tag("resultado", "fallo")
+                    .register(registry);
+        };
+    }
+}
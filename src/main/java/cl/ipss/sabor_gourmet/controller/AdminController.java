@@ -1,15 +1,37 @@
 package cl.ipss.sabor_gourmet.controller;
 
+import cl.ipss.sabor_gourmet.dto.CursorReserva;
+import cl.ipss.sabor_gourmet.dto.EstadisticasDashboard;
+import cl.ipss.sabor_gourmet.dto.FormatoArchivo;
+import cl.ipss.sabor_gourmet.dto.ReservaFiltro;
+import cl.ipss.sabor_gourmet.dto.ReservaResumen;
+import cl.ipss.sabor_gourmet.dto.ResultadoImportacion;
 import cl.ipss.sabor_gourmet.model.Mesa;
+import cl.ipss.sabor_gourmet.service.EstadisticasService;
+import cl.ipss.sabor_gourmet.service.ExportacionService;
+import cl.ipss.sabor_gourmet.service.ImportacionService;
 import cl.ipss.sabor_gourmet.service.MesaService;
 import cl.ipss.sabor_gourmet.service.ReservaService;
+import cl.ipss.sabor_gourmet.service.VersionesDatos;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Window;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
+import java.util.Locale;
 
 /**
  * Controlador para rutas administrativas de la aplicación.
@@ -21,10 +43,20 @@ public class AdminController {
 
     private final MesaService mesaService;
     private final ReservaService reservaService;
+    private final EstadisticasService estadisticasService;
+    private final ImportacionService importacionService;
+    private final ExportacionService exportacionService;
+    private final VersionesDatos versionesDatos;
 
-    public AdminController(MesaService mesaService, ReservaService reservaService) {
+    public AdminController(MesaService mesaService, ReservaService reservaService,
+                           EstadisticasService estadisticasService, ImportacionService importacionService,
+                           ExportacionService exportacionService, VersionesDatos versionesDatos) {
         this.mesaService = mesaService;
         this.reservaService = reservaService;
+        this.estadisticasService = estadisticasService;
+        this.importacionService = importacionService;
+        this.exportacionService = exportacionService;
+        this.versionesDatos = versionesDatos;
     }
 
     /**
@@ -34,22 +66,28 @@ public class AdminController {
      */
     @GetMapping("")
     public String dashboard(Model model) {
-        LocalDate hoy = LocalDate.now();
-        model.addAttribute("totalMesas", mesaService.listarTodas().size());
-        model.addAttribute("mesasActivas", mesaService.listarActivas().size());
-        model.addAttribute("reservasHoy", reservaService.listarActivasPorFecha(hoy).size());
-        model.addAttribute("reservasTotal", reservaService.listarTodas().size());
-        model.addAttribute("reservasDelDia", reservaService.listarActivasPorFecha(hoy));
+        EstadisticasDashboard estadisticas = estadisticasService.obtener();
+        model.addAttribute("totalMesas", estadisticas.getTotalMesas());
+        model.addAttribute("mesasActivas", estadisticas.getMesasActivas());
+        model.addAttribute("reservasHoy", estadisticas.getReservasHoy());
+        model.addAttribute("reservasTotal", estadisticas.getReservasTotal());
+        model.addAttribute("reservasDelDia", reservaService.listarActivasPorFecha(estadisticas.getFecha()));
+        model.addAttribute("cacheMesas", mesaService.estadisticasCache());
         return "admin/dashboard";
     }
 
     /**
      * Lista todas las mesas del restaurante.
+     * Responde 304 si el navegador ya tiene la versión actual de las mesas.
+     * @param request solicitud, para la respuesta condicional
      * @param model modelo para pasar datos a la vista
-     * @return nombre de la plantilla
+     * @return nombre de la plantilla, o null si no hubo cambios
      */
     @GetMapping("mesas")
-    public String listarMesas(Model model) {
+    public String listarMesas(ServletWebRequest request, Model model) {
+        if (RespuestasCondicionales.sinCambios(request, versionesDatos.etag("admin-mesas", versionesDatos.mesas()))) {
+            return null;
+        }
         model.addAttribute("mesas", mesaService.listarTodas());
         return "admin/mesas-lista";
     }
@@ -138,16 +176,86 @@ public class AdminController {
     }
 
     /**
-     * Lista todas las reservas del restaurante.
+     * Lista las reservas del restaurante por páginas, con filtros opcionales.
+     * @param filtro filtros de rango de fechas, estado y mesa
+     * @param cursor última reserva de la página anterior
      * @param model modelo para pasar datos a la vista
      * @return nombre de la plantilla
      */
     @GetMapping("reservas")
-    public String listarReservas(Model model) {
-        model.addAttribute("reservas", reservaService.listarTodas());
+    public String listarReservas(@ModelAttribute("filtro") ReservaFiltro filtro,
+                                 @ModelAttribute("cursor") CursorReserva cursor,
+                                 Model model) {
+        Window<ReservaResumen> pagina = reservaService.listarFiltradas(filtro, cursor.toScrollPosition());
+        model.addAttribute("reservas", pagina.getContent());
+        model.addAttribute("mesas", mesaService.listarTodas());
+        if (pagina.hasNext()) {
+            model.addAttribute("siguiente", pagina.getContent().get(pagina.size() - 1));
+        }
         return "admin/reservas-lista";
     }
 
+    /**
+     * Muestra el formulario de importación masiva de reservas.
+     * @return nombre de la plantilla
+     */
+    @GetMapping("reservas/importar")
+    public String mostrarFormularioImportacion() {
+        return "admin/reservas-importar";
+    }
+
+    /**
+     * Importa reservas desde un archivo CSV o NDJSON y muestra el informe por fila.
+     * @param archivo archivo subido; el formato se deduce de su extensión
+     * @param model modelo para pasar datos a la vista
+     * @return nombre de la plantilla
+     */
+    @PostMapping("reservas/importar")
+    public String importarReservas(@RequestParam("archivo") MultipartFile archivo, Model model) {
+        if (archivo.isEmpty()) {
+            model.addAttribute("error", "Seleccione un archivo para importar");
+            return "admin/reservas-importar";
+        }
+        try (InputStream entrada = archivo.getInputStream()) {
+            ResultadoImportacion resultado = importacionService.importar(entrada,
+                    FormatoArchivo.desdeNombreArchivo(archivo.getOriginalFilename()));
+            model.addAttribute("resultado", resultado);
+        } catch (IOException e) {
+            model.addAttribute("error", "No se pudo leer el archivo: " + e.getMessage());
+        }
+        return "admin/reservas-importar";
+    }
+
+    /**
+     * Exporta las reservas de un rango de fechas como descarga CSV o NDJSON.
+     * El archivo se escribe en la respuesta a medida que se leen las filas.
+     * @param desde primera fecha incluida
+     * @param hasta última fecha incluida
+     * @param formato csv (por defecto) o ndjson
+     * @return respuesta que escribe el archivo en streaming, o 400 si el rango o el formato no son válidos
+     */
+    @GetMapping("reservas/exportar")
+    public ResponseEntity<StreamingResponseBody> exportarReservas(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "csv") String formato) {
+        FormatoArchivo formatoArchivo;
+        try {
+            formatoArchivo = FormatoArchivo.valueOf(formato.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (hasta.isBefore(desde)) {
+            return ResponseEntity.badRequest().build();
+        }
+        String nombreArchivo = "reservas-" + desde + "_" + hasta + "." + formatoArchivo.getExtension();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formatoArchivo.getTipoContenido() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(nombreArchivo).build().toString())
+                .body(salida -> exportacionService.exportar(desde, hasta, formatoArchivo, salida));
+    }
+
     /**
      * Cancela una reserva desde el panel administrativo.
      * @param id ID de la reserva a cancelar
@@ -0,0 +1,200 @@
+package cl.ipss.sabor_gourmet.controller;
+
+import cl.ipss.sabor_gourmet.dto.CursorReserva;
+import cl.ipss.sabor_gourmet.dto.DiaCalendario;
+import cl.ipss.sabor_gourmet.dto.MesaApi;
+import cl.ipss.sabor_gourmet.dto.ReservaApi;
+import cl.ipss.sabor_gourmet.dto.ReservaForm;
+import cl.ipss.sabor_gourmet.dto.ReservaResumen;
+import cl.ipss.sabor_gourmet.dto.ReservasClienteApi;
+import cl.ipss.sabor_gourmet.model.Cliente;
+import cl.ipss.sabor_gourmet.model.Mesa;
+import cl.ipss.sabor_gourmet.model.Reserva;
+import cl.ipss.sabor_gourmet.service.AdmisionReservas;
+import cl.ipss.sabor_gourmet.service.AsignadorMesas;
+import cl.ipss.sabor_gourmet.service.CalendarioService;
+import cl.ipss.sabor_gourmet.service.ClienteService;
+import cl.ipss.sabor_gourmet.service.MesaService;
+import cl.ipss.sabor_gourmet.service.ReservaService;
+import cl.ipss.sabor_gourmet.service.VersionesDatos;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.data.domain.Window;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * API JSON para clientes móviles e integraciones: mesas, disponibilidad y reservas.
+ * Responde con DTOs compactos armados desde los mismos servicios que usan las vistas,
+ * y las consultas de solo lectura se revalidan con ETag igual que las páginas.
+ */
+@RestController
+@RequestMapping("/api/v1")
+public class ApiController {
+
+    private static final int MAXIMO_PERSONAS = 20;
+
+    private final MesaService mesaService;
+    private final ReservaService reservaService;
+    private final ClienteService clienteService;
+    private final AsignadorMesas asignadorMesas;
+    private final CalendarioService calendarioService;
+    private final AdmisionReservas admisionReservas;
+    private final VersionesDatos versionesDatos;
+
+    public ApiController(MesaService mesaService, ReservaService reservaService, ClienteService clienteService,
+                         AsignadorMesas asignadorMesas, CalendarioService calendarioService,
+                         AdmisionReservas admisionReservas, VersionesDatos versionesDatos) {
+        this.mesaService = mesaService;
+        this.reservaService = reservaService;
+        this.clienteService = clienteService;
+        this.asignadorMesas = asignadorMesas;
+        this.calendarioService = calendarioService;
+        this.admisionReservas = admisionReservas;
+        this.versionesDatos = versionesDatos;
+    }
+
+    /**
+     * Lista las mesas activas.
+     * @param request solicitud en curso, para responder 304 si el cliente ya tiene esta versión
+     * @return mesas activas, o null si se respondió 304
+     */
+    @GetMapping("/mesas")
+    public List<MesaApi> mesas(ServletWebRequest request) {
+        if (RespuestasCondicionales.sinCambios(request, versionesDatos.etag("api-mesas", versionesDatos.mesas()))) {
+            return null;
+        }
+        return mesaService.listarActivas().stream().map(MesaApi::new).toList();
+    }
+
+    /**
+     * Devuelve las horas en que un grupo puede reservar un día.
+     * @param fecha el día a consultar, en formato AAAA-MM-DD
+     * @param personas número de personas del grupo; por defecto 1
+     * @param request solicitud en curso, para responder 304 si el cliente ya tiene esta versión
+     * @return horas libres del día, 400 si el número de personas no es válido o null si se respondió 304
+     */
+    @GetMapping("/disponibilidad")
+    public ResponseEntity<DiaCalendario> disponibilidad(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
+            @RequestParam(defaultValue = "1") int personas,
+            ServletWebRequest request) {
+        if (personas < 1 || personas > MAXIMO_PERSONAS) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (RespuestasCondicionales.sinCambios(request, versionesDatos.etag("api-disponibilidad", fecha, personas,
+                versionesDatos.mesas(), versionesDatos.reservas(fecha)))) {
+            return null;
+        }
+        return ResponseEntity.ok(calendarioService.dia(fecha, personas));
+    }
+
+    /**
+     * Lista las mesas libres para un grupo en una fecha y hora, de la más ajustada a la más holgada.
+     * @param fecha la fecha, en formato AAAA-MM-DD
+     * @param hora la hora, en formato HH:mm
+     * @param personas número de personas del grupo; por defecto 1
+     * @param request solicitud en curso, para responder 304 si el cliente ya tiene esta versión
+     * @return mesas libres, 400 si el número de personas no es válido o null si se respondió 304
+     */
+    @GetMapping("/disponibilidad/mesas")
+    public ResponseEntity<List<MesaApi>> mesasLibres(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime hora,
+            @RequestParam(defaultValue = "1") int personas,
+            ServletWebRequest request) {
+        if (personas < 1 || personas > MAXIMO_PERSONAS) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (RespuestasCondicionales.sinCambios(request, versionesDatos.etag("api-mesas-libres", fecha, hora, personas,
+                versionesDatos.mesas(), versionesDatos.reservas(fecha)))) {
+            return null;
+        }
+        return ResponseEntity.ok(asignadorMesas.candidatas(fecha, hora, personas).stream().map(MesaApi::new).toList());
+    }
+
+    /**
+     * Crea una reserva con las mismas validaciones que el formulario público.
+     * Sin mesaId se asigna la mesa más ajustada que esté libre.
+     * Pasa por el control de admisión antes de consultar nada.
+     * @param form datos de la reserva
+     * @param request solicitud en curso, para limitar por IP
+     * @return 201 con la reserva creada, 400 si la fecha, la hora o la mesa no son válidas,
+     *         409 si no hay disponibilidad, o 429 con Retry-After si no se admite el intento
+     */
+    @PostMapping("/reservas")
+    public ResponseEntity<ReservaApi> crearReserva(@Valid @RequestBody ReservaForm form, HttpServletRequest request) {
+        LocalDate fecha;
+        LocalTime hora;
+        try {
+            fecha = LocalDate.parse(form.getFecha());
+            hora = LocalTime.parse(form.getHora());
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try (AdmisionReservas.Admision admision = admisionReservas.admitir(request.getRemoteAddr(),
+                form.getEmailCliente())) {
+            if (!admision.isAdmitida()) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(admision.getReintentarEnSegundos()))
+                        .build();
+            }
+            return crearAdmitida(form, fecha, hora);
+        }
+    }
+
+    private ResponseEntity<ReservaApi> crearAdmitida(ReservaForm form, LocalDate fecha, LocalTime hora) {
+        Optional<Mesa> mesa = Optional.empty();
+        if (form.getMesaId() != null) {
+            mesa = mesaService.buscarPorId(form.getMesaId());
+            if (mesa.isEmpty()) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        Cliente cliente = clienteService.buscarOCrear(form.getNombreCliente(), form.getEmailCliente(),
+                form.getTelefonoCliente());
+        Optional<Reserva> creada = mesa.isPresent()
+                ? reservaService.crear(new Reserva(fecha, hora, form.getNumeroPersonas(), cliente, mesa.get()))
+                : reservaService.crearConMesaAsignada(fecha, hora, form.getNumeroPersonas(), cliente);
+        return creada
+                .map(reserva -> ResponseEntity.status(HttpStatus.CREATED).body(new ReservaApi(reserva)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    /**
+     * Lista las reservas de un cliente por email, una página a la vez y de la más reciente a la más antigua.
+     * @param email email del cliente
+     * @param cursor última reserva de la página anterior
+     * @return página de reservas, o 404 si no hay un cliente con ese email
+     */
+    @GetMapping("/reservas")
+    public ResponseEntity<ReservasClienteApi> reservasDelCliente(@RequestParam String email,
+                                                                 @ModelAttribute CursorReserva cursor) {
+        Optional<Cliente> cliente = clienteService.buscarPorEmail(email);
+        if (cliente.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Window<ReservaResumen> pagina = reservaService.listarPorCliente(cliente.get().getId(),
+                cursor.toScrollPosition());
+        List<ReservaApi> reservas = pagina.getContent().stream().map(ReservaApi::new).toList();
+        return ResponseEntity.ok(new ReservasClienteApi(reservas, pagina.hasNext()));
+    }
+}
@@ -0,0 +1,47 @@
+package cl.ipss.sabor_gourmet.controller;
+
+import cl.ipss.sabor_gourmet.dto.CalendarioMes;
+import cl.ipss.sabor_gourmet.service.CalendarioService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.YearMonth;
+
+/**
+ * API del calendario de disponibilidad.
+ * Permite ver en una sola solicitud las horas libres de todo un mes, en vez de probar
+ * reservas una por una hasta encontrar un horario.
+ */
+@RestController
+@RequestMapping("/api/v1/calendario")
+public class CalendarioController {
+
+    private static final int MAXIMO_PERSONAS = 20;
+
+    private final CalendarioService calendarioService;
+
+    public CalendarioController(CalendarioService calendarioService) {
+        this.calendarioService = calendarioService;
+    }
+
+    /**
+     * Devuelve las horas libres de cada día de un mes para un tamaño de grupo.
+     * @param mes mes en formato AAAA-MM; por defecto el actual
+     * @param personas número de personas del grupo; por defecto 1
+     * @return calendario del mes, o 400 si el número de personas no es válido o el mes está fuera del rango consultable
+     */
+    @GetMapping
+    public ResponseEntity<CalendarioMes> calendario(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth mes,
+            @RequestParam(defaultValue = "1") int personas) {
+        YearMonth consultado = mes != null ? mes : YearMonth.now();
+        if (personas < 1 || personas > MAXIMO_PERSONAS || !calendarioService.mesConsultable(consultado)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(calendarioService.calendario(consultado, personas));
+    }
+}
@@ -1,16 +1,30 @@
 package cl.ipss.sabor_gourmet.controller;
 
+import cl.ipss.sabor_gourmet.dto.CursorReserva;
+import cl.ipss.sabor_gourmet.dto.EstadisticasDashboard;
 import cl.ipss.sabor_gourmet.dto.ReservaForm;
+import cl.ipss.sabor_gourmet.dto.ReservaResumen;
 import cl.ipss.sabor_gourmet.model.Cliente;
 import cl.ipss.sabor_gourmet.model.Reserva;
+import cl.ipss.sabor_gourmet.model.SolicitudEspera;
+import cl.ipss.sabor_gourmet.service.AdmisionReservas;
 import cl.ipss.sabor_gourmet.service.ClienteService;
+import cl.ipss.sabor_gourmet.service.EstadisticasService;
+import cl.ipss.sabor_gourmet.service.ListaEsperaService;
 import cl.ipss.sabor_gourmet.service.MesaService;
 import cl.ipss.sabor_gourmet.service.ReservaService;
+import cl.ipss.sabor_gourmet.service.VersionesDatos;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -27,32 +41,55 @@ public class PublicController {
     private final ReservaService reservaService;
     private final MesaService mesaService;
     private final ClienteService clienteService;
+    private final EstadisticasService estadisticasService;
+    private final ListaEsperaService listaEsperaService;
+    private final AdmisionReservas admisionReservas;
+    private final VersionesDatos versionesDatos;
 
-    public PublicController(ReservaService reservaService, MesaService mesaService, ClienteService clienteService) {
+    public PublicController(ReservaService reservaService, MesaService mesaService, ClienteService clienteService,
+                            EstadisticasService estadisticasService, ListaEsperaService listaEsperaService,
+                            AdmisionReservas admisionReservas, VersionesDatos versionesDatos) {
         this.reservaService = reservaService;
         this.mesaService = mesaService;
         this.clienteService = clienteService;
+        this.estadisticasService = estadisticasService;
+        this.listaEsperaService = listaEsperaService;
+        this.admisionReservas = admisionReservas;
+        this.versionesDatos = versionesDatos;
     }
 
     /**
      * Página de inicio del restaurante.
+     * Responde 304 si el navegador ya tiene la versión actual de las mesas y de las reservas de hoy.
+     * @param request solicitud, para la respuesta condicional
      * @param model modelo para pasar datos a la vista
-     * @return nombre de la plantilla
+     * @return nombre de la plantilla, o null si no hubo cambios
      */
     @GetMapping("")
-    public String inicio(Model model) {
-        model.addAttribute("mesasActivas", mesaService.listarActivas().size());
-        model.addAttribute("reservasHoy", reservaService.listarActivasPorFecha(LocalDate.now()).size());
+    public String inicio(ServletWebRequest request, Model model) {
+        LocalDate hoy = LocalDate.now();
+        String etag = versionesDatos.etag("inicio", hoy, versionesDatos.mesas(), versionesDatos.reservas(hoy));
+        if (RespuestasCondicionales.sinCambios(request, etag)) {
+            return null;
+        }
+        EstadisticasDashboard estadisticas = estadisticasService.obtener();
+        model.addAttribute("mesasActivas", estadisticas.getMesasActivas());
+        model.addAttribute("reservasHoy", estadisticas.getReservasHoy());
         return "public/index";
     }
 
     /**
      * Muestra el formulario para crear una nueva reserva.
+     * Responde 304 si el navegador ya tiene la versión actual de las mesas.
+     * @param request solicitud, para la respuesta condicional
      * @param model modelo para pasar datos a la vista
-     * @return nombre de la plantilla
+     * @return nombre de la plantilla, o null si no hubo cambios
      */
     @GetMapping("reservas/nueva")
-    public String mostrarFormularioReserva(Model model) {
+    public String mostrarFormularioReserva(ServletWebRequest request, Model model) {
+        if (RespuestasCondicionales.sinCambios(request, versionesDatos.etag("reserva-form", versionesDatos.mesas()))) {
+            return null;
+        }
         model.addAttribute("reservaForm", new ReservaForm());
         model.addAttribute("mesas", mesaService.listarActivas());
         return "public/reserva-form";
@@ -60,30 +97,56 @@ public class PublicController {
 
     /**
      * Procesa la creación de una nueva reserva.
-     * Valida el formulario, comprueba disponibilidad y crea la reserva si es posible.
+     * Valida el formulario, pasa por el control de admisión, comprueba disponibilidad
+     * y crea la reserva si es posible.
      * @param form formulario de reserva validado
      * @param result resultado de la validación
      * @param model modelo para pasar datos a la vista
+     * @param request solicitud en curso, para limitar por IP
+     * @param response respuesta, para marcar los intentos rechazados con 429
      * @return redirección a confirmación o vuelta al formulario con errores
      */
     @PostMapping("reservas")
     public String crearReserva(@Valid @ModelAttribute("reservaForm") ReservaForm form,
                                BindingResult result,
-                               Model model) {
+                               Model model,
+                               HttpServletRequest request,
+                               HttpServletResponse response) {
         if (result.hasErrors()) {
             model.addAttribute("mesas", mesaService.listarActivas());
             return "public/reserva-form";
         }
 
+        try (AdmisionReservas.Admision admision = admisionReservas.admitir(request.getRemoteAddr(),
+                form.getEmailCliente())) {
+            if (!admision.isAdmitida()) {
+                return rechazar(admision, response, model);
+            }
+            return crearAdmitida(form, model);
+        }
+    }
+
+    private String crearAdmitida(ReservaForm form, Model model) {
         try {
-            // Buscar o crear cliente
-            Optional<Cliente> clienteOpt = clienteService.buscarPorEmail(form.getEmailCliente());
-            Cliente cliente;
-            if (clienteOpt.isPresent()) {
-                cliente = clienteOpt.get();
-            } else {
-                cliente = new Cliente(form.getNombreCliente(), form.getEmailCliente(), form.getTelefonoCliente());
-                cliente = clienteService.crear(cliente);
+            Cliente cliente = clienteService.buscarOCrear(form.getNombreCliente(), form.getEmailCliente(),
+                    form.getTelefonoCliente());
+
+            LocalDate fecha = LocalDate.parse(form.getFecha());
+            LocalTime hora = LocalTime.parse(form.getHora());
+
+            // Sin mesa elegida, se asigna la más ajustada que esté libre
+            if (form.getMesaId() == null) {
+                Optional<Reserva> reservaCreada = reservaService.crearConMesaAsignada(fecha, hora,
+                        form.getNumeroPersonas(), cliente);
+                if (reservaCreada.isPresent()) {
+                    model.addAttribute("reserva", reservaCreada.get());
+                    return "public/confirmacion";
+                }
+                model.addAttribute("error", "No hay mesas disponibles para " + form.getNumeroPersonas()
+                        + " personas en esa fecha y hora");
+                model.addAttribute("ofrecerEspera", true);
+                model.addAttribute("mesas", mesaService.listarActivas());
+                return "public/reserva-form";
             }
 
             // Buscar mesa
@@ -95,8 +158,6 @@ public class PublicController {
             }
 
             var mesa = mesaOpt.get();
-            LocalDate fecha = LocalDate.parse(form.getFecha());
-            LocalTime hora = LocalTime.parse(form.getHora());
 
             // Crear reserva
             Reserva reserva = new Reserva(fecha, hora, form.getNumeroPersonas(), cliente, (cl.ipss.sabor_gourmet.model.Mesa) mesa);
@@ -107,6 +168,7 @@ public class PublicController {
                 return "public/confirmacion";
             } else {
                 model.addAttribute("error", "No hay disponibilidad para esa mesa en esa fecha y hora");
+                model.addAttribute("ofrecerEspera", true);
                 model.addAttribute("mesas", mesaService.listarActivas());
                 return "public/reserva-form";
             }
@@ -117,22 +179,83 @@ public class PublicController {
         }
     }
 
+    /**
+     * Anota al cliente en la lista de espera con los datos del formulario de reserva.
+     * Si se libera una mesa cerca de la hora pedida, la reserva se crea sola y llega la confirmación.
+     * @param form formulario de reserva validado
+     * @param result resultado de la validación
+     * @param model modelo para pasar datos a la vista
+     * @param request solicitud en curso, para limitar por IP
+     * @param response respuesta, para marcar los intentos rechazados con 429
+     * @return el formulario con el resultado
+     */
+    @PostMapping("reservas/espera")
+    public String anotarEnEspera(@Valid @ModelAttribute("reservaForm") ReservaForm form,
+                                 BindingResult result,
+                                 Model model,
+                                 HttpServletRequest request,
+                                 HttpServletResponse response) {
+        model.addAttribute("mesas", mesaService.listarActivas());
+        if (result.hasErrors()) {
+            return "public/reserva-form";
+        }
+        try (AdmisionReservas.Admision admision = admisionReservas.admitir(request.getRemoteAddr(),
+                form.getEmailCliente())) {
+            if (!admision.isAdmitida()) {
+                return rechazar(admision, response, model);
+            }
+            Cliente cliente = clienteService.buscarOCrear(form.getNombreCliente(), form.getEmailCliente(),
+                    form.getTelefonoCliente());
+            SolicitudEspera solicitud = listaEsperaService.anotar(cliente, LocalDate.parse(form.getFecha()),
+                    LocalTime.parse(form.getHora()), form.getNumeroPersonas());
+            model.addAttribute("mensaje", "Quedaste en la lista de espera del " + solicitud.getFecha()
+                    + " entre las " + solicitud.getHoraDesde() + " y las " + solicitud.getHoraHasta()
+                    + ". Si se libera una mesa te enviaremos la confirmación.");
+        } catch (Exception e) {
+            model.addAttribute("error", "Error al anotarse en la lista de espera: " + e.getMessage());
+        }
+        return "public/reserva-form";
+    }
+
+    /**
+     * Vuelve al formulario con un aviso cuando el control de admisión no deja pasar el intento.
+     * Responde 429 con Retry-After para que los clientes automáticos esperen antes de reintentar.
+     */
+    private String rechazar(AdmisionReservas.Admision admision, HttpServletResponse response, Model model) {
+        long segundos = admision.getReintentarEnSegundos();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+        String error = admision.getResultado() == AdmisionReservas.Resultado.SATURADA
+                ? "En este momento estamos recibiendo muchas reservas. Inténtalo de nuevo en unos segundos."
+                : "Recibimos demasiados intentos seguidos. Espera " + segundos
+                        + (segundos == 1 ? " segundo" : " segundos") + " antes de volver a intentarlo.";
+        model.addAttribute("error", error);
+        model.addAttribute("mesas", mesaService.listarActivas());
+        return "public/reserva-form";
+    }
+
     /**
      * Busca las reservas de un cliente por email.
+     * Muestra una página a la vez; el cursor indica la última reserva de la página anterior.
      * @param email email del cliente
+     * @param cursor última reserva mostrada
      * @param model modelo para pasar datos a la vista
      * @return nombre de la plantilla
      */
     @GetMapping("reservas/mis-reservas")
-    public String misCancelacionesReservas(@RequestParam(required = false) String email, Model model) {
+    public String misCancelacionesReservas(@RequestParam(required = false) String email,
+                                           @ModelAttribute("cursor") CursorReserva cursor,
+                                           Model model) {
         if (email != null && !email.isEmpty()) {
             Optional<Cliente> cliente = clienteService.buscarPorEmail(email);
             if (cliente.isPresent()) {
-                var reservas = reservaService.listarTodas().stream()
-                        .filter(r -> r.getCliente().getId().equals(cliente.get().getId()))
-                        .toList();
-                model.addAttribute("reservas", reservas);
+                Window<ReservaResumen> pagina = reservaService.listarPorCliente(cliente.get().getId(),
+                        cursor.toScrollPosition());
+                model.addAttribute("reservas", pagina.getContent());
                 model.addAttribute("cliente", cliente.get());
+                if (pagina.hasNext()) {
+                    model.addAttribute("siguiente", pagina.getContent().get(pagina.size() - 1));
+                }
             } else {
                 model.addAttribute("error", "Cliente no encontrado");
             }
@@ -0,0 +1,33 @@
+package cl.ipss.sabor_gourmet.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Respuestas condicionales para las vistas que cambian poco.
+ * El navegador guarda la página y con "no-cache" la revalida en cada visita enviando su ETag;
+ * si coincide se responde 304 sin cuerpo y el controlador no arma el modelo ni renderiza.
+ * El ETag es débil: Tomcat no comprime respuestas con ETag fuerte, y la versión comprimida
+ * y la sin comprimir tienen el mismo contenido aunque no los mismos bytes.
+ */
+final class RespuestasCondicionales {
+
+    private RespuestasCondicionales() {
+    }
+
+    /**
+     * Fija el ETag de la respuesta y comprueba si el cliente ya tiene esa versión.
+     * Si la tiene, la respuesta queda como 304 y el controlador debe devolver null.
+     * @param request la solicitud en curso
+     * @param etag versión de los datos que muestra la vista, sin comillas
+     * @return true si no hace falta renderizar la vista
+     */
+    static boolean sinCambios(ServletWebRequest request, String etag) {
+        HttpServletResponse respuesta = request.getResponse();
+        if (respuesta != null) {
+            respuesta.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        }
+        return request.checkNotModified("W/\"" + etag + "\"");
+    }
+}
@@ -0,0 +1,33 @@
+package cl.ipss.sabor_gourmet.dto;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Calendario de disponibilidad de un mes para un tamaño de grupo.
+ * Incluye un elemento por cada día del mes desde hoy en adelante.
+ */
+public class CalendarioMes {
+
+    private final YearMonth mes;
+    private final int personas;
+    private final List<DiaCalendario> dias;
+
+    public CalendarioMes(YearMonth mes, int personas, List<DiaCalendario> dias) {
+        this.mes = mes;
+        this.personas = personas;
+        this.dias = dias;
+    }
+
+    public String getMes() {
+        return mes.toString();
+    }
+
+    public int getPersonas() {
+        return personas;
+    }
+
+    public List<DiaCalendario> getDias() {
+        return dias;
+    }
+}
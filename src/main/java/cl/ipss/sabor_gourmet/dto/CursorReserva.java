@@ -0,0 +1,71 @@
+package cl.ipss.sabor_gourmet.dto;
+
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+
+/**
+ * Posición de paginación por keyset en los listados de reservas.
+ * Identifica la última reserva mostrada por (fecha, hora, id); si falta alguno
+ * de los tres valores se parte desde el comienzo.
+ */
+public class CursorReserva {
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate desdeFecha;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.TIME)
+    private LocalTime desdeHora;
+
+    private Long desdeId;
+
+    // Constructores
+    public CursorReserva() {
+    }
+
+    /**
+     * Convierte el cursor en la posición de scroll de Spring Data.
+     * @return posición inicial o la posición siguiente a la última reserva mostrada
+     */
+    public ScrollPosition toScrollPosition() {
+        if (desdeFecha == null || desdeHora == null || desdeId == null) {
+            return ScrollPosition.keyset();
+        }
+        return ScrollPosition.forward(Map.of("fecha", desdeFecha, "hora", desdeHora, "id", desdeId));
+    }
+
+    /**
+     * @return true si el cursor apunta a una página distinta de la primera
+     */
+    public boolean isPresente() {
+        return desdeId != null;
+    }
+
+    // Getters y Setters
+    public LocalDate getDesdeFecha() {
+        return desdeFecha;
+    }
+
+    public void setDesdeFecha(LocalDate desdeFecha) {
+        this.desdeFecha = desdeFecha;
+    }
+
+    public LocalTime getDesdeHora() {
+        return desdeHora;
+    }
+
+    public void setDesdeHora(LocalTime desdeHora) {
+        this.desdeHora = desdeHora;
+    }
+
+    public Long getDesdeId() {
+        return desdeId;
+    }
+
+    public void setDesdeId(Long desdeId) {
+        this.desdeId = desdeId;
+    }
+}
@@ -0,0 +1,26 @@
+package cl.ipss.sabor_gourmet.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Horas libres de un día del calendario de disponibilidad.
+ */
+public class DiaCalendario {
+
+    private final LocalDate fecha;
+    private final List<String> horasLibres;
+
+    public DiaCalendario(LocalDate fecha, List<String> horasLibres) {
+        this.fecha = fecha;
+        this.horasLibres = horasLibres;
+    }
+
+    public LocalDate getFecha() {
+        return fecha;
+    }
+
+    public List<String> getHorasLibres() {
+        return horasLibres;
+    }
+}
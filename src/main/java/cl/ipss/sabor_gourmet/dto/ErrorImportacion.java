@@ -0,0 +1,23 @@
+package cl.ipss.sabor_gourmet.dto;
+
+/**
+ * Fila rechazada durante una importación masiva de reservas.
+ */
+public class ErrorImportacion {
+
+    private final long linea;
+    private final String mensaje;
+
+    public ErrorImportacion(long linea, String mensaje) {
+        this.linea = linea;
+        this.mensaje = mensaje;
+    }
+
+    public long getLinea() {
+        return linea;
+    }
+
+    public String getMensaje() {
+        return mensaje;
+    }
+}
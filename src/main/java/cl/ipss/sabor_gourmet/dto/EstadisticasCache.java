@@ -0,0 +1,31 @@
+package cl.ipss.sabor_gourmet.dto;
+
+/**
+ * Contadores de aciertos y fallos de una caché en memoria.
+ */
+public class EstadisticasCache {
+
+    private final long aciertos;
+    private final long fallos;
+
+    public EstadisticasCache(long aciertos, long fallos) {
+        this.aciertos = aciertos;
+        this.fallos = fallos;
+    }
+
+    public long getAciertos() {
+        return aciertos;
+    }
+
+    public long getFallos() {
+        return fallos;
+    }
+
+    /**
+     * @return proporción de lecturas servidas desde la caché, entre 0 y 1
+     */
+    public double getTasaAciertos() {
+        long total = aciertos + fallos;
+        return total == 0 ? 0 : (double) aciertos / total;
+    }
+}
@@ -0,0 +1,47 @@
+package cl.ipss.sabor_gourmet.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Foto inmutable de los contadores del panel administrativo para un día.
+ */
+public class EstadisticasDashboard {
+
+    private final LocalDate fecha;
+    private final long totalMesas;
+    private final long mesasActivas;
+    private final long reservasHoy;
+    private final long reservasTotal;
+
+    public EstadisticasDashboard(LocalDate fecha, long totalMesas, long mesasActivas,
+                                 long reservasHoy, long reservasTotal) {
+        this.fecha = fecha;
+        this.totalMesas = totalMesas;
+        this.mesasActivas = mesasActivas;
+        this.reservasHoy = reservasHoy;
+        this.reservasTotal = reservasTotal;
+    }
+
+    public LocalDate getFecha() {
+        return fecha;
+    }
+
+    public long getTotalMesas() {
+        return totalMesas;
+    }
+
+    public long getMesasActivas() {
+        return mesasActivas;
+    }
+
+    /**
+     * @return reservas ACTIVAS para la fecha de la foto
+     */
+    public long getReservasHoy() {
+        return reservasHoy;
+    }
+
+    public long getReservasTotal() {
+        return reservasTotal;
+    }
+}
@@ -0,0 +1,37 @@
+package cl.ipss.sabor_gourmet.dto;
+
+import java.util.Locale;
+
+/**
+ * Formatos de archivo de reservas aceptados por la importación y la exportación.
+ */
+public enum FormatoArchivo {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String tipoContenido;
+    private final String extension;
+
+    FormatoArchivo(String tipoContenido, String extension) {
+        this.tipoContenido = tipoContenido;
+        this.extension = extension;
+    }
+
+    /**
+     * Deduce el formato a partir de la extensión del archivo; por defecto CSV.
+     * @param nombreArchivo nombre original del archivo subido
+     * @return formato del archivo
+     */
+    public static FormatoArchivo desdeNombreArchivo(String nombreArchivo) {
+        String nombre = nombreArchivo == null ? "" : nombreArchivo.toLowerCase(Locale.ROOT);
+        return nombre.endsWith(".ndjson") || nombre.endsWith(".jsonl") ? NDJSON : CSV;
+    }
+
+    public String getTipoContenido() {
+        return tipoContenido;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
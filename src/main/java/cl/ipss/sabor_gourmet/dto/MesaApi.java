@@ -0,0 +1,31 @@
+package cl.ipss.sabor_gourmet.dto;
+
+import cl.ipss.sabor_gourmet.model.Mesa;
+
+/**
+ * Mesa en la API JSON: solo lo que un cliente necesita para elegirla.
+ */
+public class MesaApi {
+
+    private final Long id;
+    private final Integer numero;
+    private final Integer capacidad;
+
+    public MesaApi(Mesa mesa) {
+        this.id = mesa.getId();
+        this.numero = mesa.getNumero();
+        this.capacidad = mesa.getCapacidad();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Integer getNumero() {
+        return numero;
+    }
+
+    public Integer getCapacidad() {
+        return capacidad;
+    }
+}
@@ -0,0 +1,68 @@
+package cl.ipss.sabor_gourmet.dto;
+
+import cl.ipss.sabor_gourmet.model.Reserva;
+
+import java.time.LocalDate;
+
+/**
+ * Reserva en la API JSON. La mesa va como su número y no se repiten los datos
+ * del cliente, que quien consulta ya conoce. La hora va como HH:mm.
+ */
+public class ReservaApi {
+
+    private final Long id;
+    private final LocalDate fecha;
+    private final String hora;
+    private final Integer personas;
+    private final Integer duracionMinutos;
+    private final Integer mesa;
+    private final String estado;
+
+    public ReservaApi(Reserva reserva) {
+        this.id = reserva.getId();
+        this.fecha = reserva.getFecha();
+        this.hora = reserva.getHora().toString();
+        this.personas = reserva.getNumeroPersonas();
+        this.duracionMinutos = reserva.getDuracionMinutos();
+        this.mesa = reserva.getMesa().getNumero();
+        this.estado = reserva.getEstado();
+    }
+
+    public ReservaApi(ReservaResumen reserva) {
+        this.id = reserva.getId();
+        this.fecha = reserva.getFecha();
+        this.hora = reserva.getHora().toString();
+        this.personas = reserva.getNumeroPersonas();
+        this.duracionMinutos = reserva.getDuracionMinutos();
+        this.mesa = reserva.getMesaNumero();
+        this.estado = reserva.getEstado();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDate getFecha() {
+        return fecha;
+    }
+
+    public String getHora() {
+        return hora;
+    }
+
+    public Integer getPersonas() {
+        return personas;
+    }
+
+    public Integer getDuracionMinutos() {
+        return duracionMinutos;
+    }
+
+    public Integer getMesa() {
+        return mesa;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+}
@@ -0,0 +1,31 @@
+package cl.ipss.sabor_gourmet.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Proyección plana de una reserva para exportarla, con los datos del cliente y el número de mesa.
+ * Al no ser una entidad, las filas no se acumulan en el contexto de persistencia mientras se recorren.
+ */
+public interface ReservaExportada {
+
+    Long getId();
+
+    String getEmail();
+
+    String getNombre();
+
+    String getTelefono();
+
+    LocalDate getFecha();
+
+    LocalTime getHora();
+
+    Integer getNumeroPersonas();
+
+    Integer getDuracionMinutos();
+
+    Integer getMesa();
+
+    String getEstado();
+}
@@ -31,8 +31,7 @@ public class ReservaForm {
     @Max(value = 20, message = "Máximo 20 personas por reserva")
     private Integer numeroPersonas;
 
-    @NotNull(message = "Debe seleccionar una mesa")
-    private Long mesaId;
+    private Long mesaId; // vacío para asignar la mesa automáticamente
 
     // Constructores
     public ReservaForm() {
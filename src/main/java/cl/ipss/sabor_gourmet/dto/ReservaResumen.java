@@ -0,0 +1,32 @@
+package cl.ipss.sabor_gourmet.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Proyección de solo lectura de una reserva para los listados: dashboard, reservas del
+ * administrador y mis reservas. Se obtiene con una sola consulta que une cliente y mesa,
+ * en vez de cargar entidades completas con un SELECT extra por cada cliente y mesa distintos.
+ * Los nombres clienteNombre, clienteEmail y mesaNumero son rutas a cliente.nombre,
+ * cliente.email y mesa.numero.
+ */
+public interface ReservaResumen {
+
+    Long getId();
+
+    LocalDate getFecha();
+
+    LocalTime getHora();
+
+    Integer getNumeroPersonas();
+
+    Integer getDuracionMinutos();
+
+    String getEstado();
+
+    String getClienteNombre();
+
+    String getClienteEmail();
+
+    Integer getMesaNumero();
+}
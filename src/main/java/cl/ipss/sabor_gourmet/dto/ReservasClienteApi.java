@@ -0,0 +1,27 @@
+package cl.ipss.sabor_gourmet.dto;
+
+import java.util.List;
+
+/**
+ * Una página de las reservas de un cliente en la API JSON.
+ * Si hay más, la página siguiente se pide enviando la fecha, la hora y el id
+ * de la última reserva como desdeFecha, desdeHora y desdeId.
+ */
+public class ReservasClienteApi {
+
+    private final List<ReservaApi> reservas;
+    private final boolean hayMas;
+
+    public ReservasClienteApi(List<ReservaApi> reservas, boolean hayMas) {
+        this.reservas = reservas;
+        this.hayMas = hayMas;
+    }
+
+    public List<ReservaApi> getReservas() {
+        return reservas;
+    }
+
+    public boolean isHayMas() {
+        return hayMas;
+    }
+}
@@ -0,0 +1,76 @@
+package cl.ipss.sabor_gourmet.dto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Informe de una importación masiva de reservas: cuántas filas se leyeron,
+ * cuántas se guardaron y el detalle de las rechazadas.
+ * Solo se guardan los primeros MAXIMO_ERRORES errores; el resto solo se cuenta.
+ */
+public class ResultadoImportacion {
+
+    public static final int MAXIMO_ERRORES = 1_000;
+
+    private long filasLeidas;
+    private long importadas;
+    private long clientesCreados;
+    private long rechazadas;
+    private long milisegundos;
+    private final List<ErrorImportacion> errores = new ArrayList<>();
+
+    public void contarFila() {
+        filasLeidas++;
+    }
+
+    public void sumarImportadas(long cantidad) {
+        importadas += cantidad;
+    }
+
+    public void sumarClientesCreados(long cantidad) {
+        clientesCreados += cantidad;
+    }
+
+    public void rechazar(long linea, String mensaje) {
+        rechazadas++;
+        if (errores.size() < MAXIMO_ERRORES) {
+            errores.add(new ErrorImportacion(linea, mensaje));
+        }
+    }
+
+    public void setMilisegundos(long milisegundos) {
+        this.milisegundos = milisegundos;
+    }
+
+    public long getFilasLeidas() {
+        return filasLeidas;
+    }
+
+    public long getImportadas() {
+        return importadas;
+    }
+
+    public long getClientesCreados() {
+        return clientesCreados;
+    }
+
+    public long getRechazadas() {
+        return rechazadas;
+    }
+
+    public long getMilisegundos() {
+        return milisegundos;
+    }
+
+    public List<ErrorImportacion> getErrores() {
+        return Collections.unmodifiableList(errores);
+    }
+
+    /**
+     * @return true si hubo más errores de los que se guardaron en el detalle
+     */
+    public boolean isErroresTruncados() {
+        return rechazadas > errores.size();
+    }
+}
@@ -0,0 +1,16 @@
+package cl.ipss.sabor_gourmet.dto;
+
+import java.time.LocalTime;
+
+/**
+ * Proyección mínima de una reserva activa: solo la mesa, la hora y la duración.
+ * Se usa para construir el índice de ocupación sin cargar entidades completas.
+ */
+public interface SlotOcupado {
+
+    Long getMesaId();
+
+    LocalTime getHora();
+
+    Integer getDuracionMinutos();
+}
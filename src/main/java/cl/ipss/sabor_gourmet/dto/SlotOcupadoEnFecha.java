@@ -0,0 +1,11 @@
+package cl.ipss.sabor_gourmet.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Proyección de una reserva activa con su fecha, para leer la ocupación de varios días en una consulta.
+ */
+public interface SlotOcupadoEnFecha extends SlotOcupado {
+
+    LocalDate getFecha();
+}
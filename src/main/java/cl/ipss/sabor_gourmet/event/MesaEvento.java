@@ -0,0 +1,33 @@
+package cl.ipss.sabor_gourmet.event;
+
+/**
+ * Evento publicado por MesaService cada vez que cambia el catálogo de mesas.
+ */
+public class MesaEvento {
+
+    public enum Tipo { CREADA, ACTUALIZADA, ESTADO_CAMBIADO, ELIMINADA }
+
+    private final Tipo tipo;
+    private final Long mesaId;
+
+    public MesaEvento(Tipo tipo, Long mesaId) {
+        this.tipo = tipo;
+        this.mesaId = mesaId;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public Long getMesaId() {
+        return mesaId;
+    }
+
+    @Override
+    public String toString() {
+        return "MesaEvento{" +
+                "tipo=" + tipo +
+                ", mesaId=" + mesaId +
+                '}';
+    }
+}
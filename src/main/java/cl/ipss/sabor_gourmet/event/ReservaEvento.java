@@ -0,0 +1,69 @@
+package cl.ipss.sabor_gourmet.event;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Evento publicado por ReservaService cada vez que cambia una reserva.
+ * Lo escuchan los componentes que mantienen datos derivados en memoria.
+ */
+public class ReservaEvento {
+
+    public enum Tipo { CREADA, CANCELADA, ELIMINADA, ACTUALIZADA }
+
+    private final Tipo tipo;
+    private final Long reservaId;
+    private final Long mesaId;
+    private final LocalDate fecha;
+    private final LocalTime hora;
+    private final boolean estabaActiva;
+
+    public ReservaEvento(Tipo tipo, Long reservaId, Long mesaId, LocalDate fecha, LocalTime hora,
+                         boolean estabaActiva) {
+        this.tipo = tipo;
+        this.reservaId = reservaId;
+        this.mesaId = mesaId;
+        this.fecha = fecha;
+        this.hora = hora;
+        this.estabaActiva = estabaActiva;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public Long getReservaId() {
+        return reservaId;
+    }
+
+    public Long getMesaId() {
+        return mesaId;
+    }
+
+    public LocalDate getFecha() {
+        return fecha;
+    }
+
+    public LocalTime getHora() {
+        return hora;
+    }
+
+    /**
+     * @return true si la reserva estaba ACTIVA antes del cambio
+     */
+    public boolean isEstabaActiva() {
+        return estabaActiva;
+    }
+
+    @Override
+    public String toString() {
+        return "ReservaEvento{" +
+                "tipo=" + tipo +
+                ", reservaId=" + reservaId +
+                ", mesaId=" + mesaId +
+                ", fecha=" + fecha +
+                ", hora=" + hora +
+                ", estabaActiva=" + estabaActiva +
+                '}';
+    }
+}
@@ -0,0 +1,42 @@
+package cl.ipss.sabor_gourmet.event;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Evento publicado por ImportacionService una vez por lote confirmado.
+ * Resume lo insertado para que los componentes con datos derivados se ajusten una sola vez
+ * por lote; las reservas importadas canceladas solo suman al total.
+ */
+public class ReservasImportadasEvento {
+
+    private final int importadas;
+    private final Map<LocalDate, Integer> activasPorFecha;
+
+    public ReservasImportadasEvento(int importadas, Map<LocalDate, Integer> activasPorFecha) {
+        this.importadas = importadas;
+        this.activasPorFecha = Map.copyOf(activasPorFecha);
+    }
+
+    /**
+     * @return reservas insertadas en el lote, activas o no
+     */
+    public int getImportadas() {
+        return importadas;
+    }
+
+    /**
+     * @return cuántas reservas activas se insertaron en cada fecha
+     */
+    public Map<LocalDate, Integer> getActivasPorFecha() {
+        return activasPorFecha;
+    }
+
+    @Override
+    public String toString() {
+        return "ReservasImportadasEvento{" +
+                "importadas=" + importadas +
+                ", activasPorFecha=" + activasPorFecha +
+                '}';
+    }
+}
@@ -1,6 +1,8 @@
 package cl.ipss.sabor_gourmet.model;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 
 /**
  * Entidad que representa una mesa del restaurante.
@@ -11,7 +13,8 @@ import jakarta.persistence.*;
 public class Mesa {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mesas_seq")
+    @SequenceGenerator(name = "mesas_seq", sequenceName = "mesas_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -23,6 +26,10 @@ public class Mesa {
     @Column(nullable = false)
     private Boolean activa = true; // disponible en el restaurante
 
+    @Min(value = 15, message = "La duración mínima es de 15 minutos")
+    @Max(value = 600, message = "La duración máxima es de 600 minutos")
+    private Integer duracionMinutos; // NULL: se usa la duración según el tamaño del grupo
+
     // Constructores
     public Mesa() {
     }
@@ -72,6 +79,14 @@ public class Mesa {
         this.activa = activa;
     }
 
+    public Integer getDuracionMinutos() {
+        return duracionMinutos;
+    }
+
+    public void setDuracionMinutos(Integer duracionMinutos) {
+        this.duracionMinutos = duracionMinutos;
+    }
+
     @Override
     public String toString() {
         return "Mesa{" +
@@ -0,0 +1,172 @@
+package cl.ipss.sabor_gourmet.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Notificación pendiente de enviar al cliente (outbox).
+ * Se guarda en la misma transacción que la reserva que la origina, así que existe si y solo si
+ * el cambio se confirmó; un despachador en segundo plano la envía después, fuera de la solicitud.
+ * El destinatario y el texto se fijan al crearla, con los datos vigentes en ese momento.
+ */
+@Entity
+@Table(name = "notificaciones",
+        indexes = @Index(name = "idx_notificaciones_estado_proximo", columnList = "estado, proximo_intento, id"))
+public class Notificacion {
+
+    public static final String CONFIRMACION = "CONFIRMACION";
+    public static final String CANCELACION = "CANCELACION";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notificaciones_seq")
+    @SequenceGenerator(name = "notificaciones_seq", sequenceName = "notificaciones_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 20)
+    private String tipo; // CONFIRMACION, CANCELACION
+
+    @Column(nullable = false)
+    private Long reservaId;
+
+    @Column(nullable = false)
+    private String email;
+
+    private String telefono;
+
+    @Column(nullable = false, length = 500)
+    private String mensaje;
+
+    @Column(nullable = false, length = 20)
+    private String estado = "PENDIENTE"; // PENDIENTE, ENVIADA, FALLIDA
+
+    @Column(nullable = false)
+    private Integer intentos = 0;
+
+    @Column(nullable = false)
+    private LocalDateTime proximoIntento;
+
+    @Column(nullable = false)
+    private LocalDateTime creada;
+
+    private LocalDateTime enviada;
+
+    @Column(length = 500)
+    private String ultimoError;
+
+    // Constructores
+    public Notificacion() {
+    }
+
+    public Notificacion(String tipo, Reserva reserva, String mensaje) {
+        this.tipo = tipo;
+        this.reservaId = reserva.getId();
+        this.email = reserva.getCliente().getEmail();
+        this.telefono = reserva.getCliente().getTelefono();
+        this.mensaje = mensaje;
+        this.creada = LocalDateTime.now();
+        this.proximoIntento = creada;
+    }
+
+    /**
+     * Arma la confirmación de una reserva recién creada.
+     * @param reserva la reserva guardada, con id, cliente y mesa
+     * @return notificación pendiente
+     */
+    public static Notificacion confirmacion(Reserva reserva) {
+        return new Notificacion(CONFIRMACION, reserva, String.format(
+                "Hola %s, tu reserva #%d está confirmada: mesa %d, %s a las %s, %d personas.",
+                reserva.getCliente().getNombre(), reserva.getId(), reserva.getMesa().getNumero(),
+                reserva.getFecha(), reserva.getHora(), reserva.getNumeroPersonas()));
+    }
+
+    /**
+     * Arma el aviso de cancelación de una reserva.
+     * @param reserva la reserva cancelada, con cliente y mesa
+     * @return notificación pendiente
+     */
+    public static Notificacion cancelacion(Reserva reserva) {
+        return new Notificacion(CANCELACION, reserva, String.format(
+                "Hola %s, tu reserva #%d del %s a las %s fue cancelada.",
+                reserva.getCliente().getNombre(), reserva.getId(), reserva.getFecha(), reserva.getHora()));
+    }
+
+    // Getters y Setters
+    public Long getId() {
+        return id;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public Long getReservaId() {
+        return reservaId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getTelefono() {
+        return telefono;
+    }
+
+    public String getMensaje() {
+        return mensaje;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+
+    public Integer getIntentos() {
+        return intentos;
+    }
+
+    public void setIntentos(Integer intentos) {
+        this.intentos = intentos;
+    }
+
+    public LocalDateTime getProximoIntento() {
+        return proximoIntento;
+    }
+
+    public void setProximoIntento(LocalDateTime proximoIntento) {
+        this.proximoIntento = proximoIntento;
+    }
+
+    public LocalDateTime getCreada() {
+        return creada;
+    }
+
+    public LocalDateTime getEnviada() {
+        return enviada;
+    }
+
+    public void setEnviada(LocalDateTime enviada) {
+        this.enviada = enviada;
+    }
+
+    public String getUltimoError() {
+        return ultimoError;
+    }
+
+    public void setUltimoError(String ultimoError) {
+        this.ultimoError = ultimoError;
+    }
+
+    @Override
+    public String toString() {
+        return "Notificacion{" +
+                "id=" + id +
+                ", tipo='" + tipo + '\'' +
+                ", reservaId=" + reservaId +
+                ", estado='" + estado + '\'' +
+                ", intentos=" + intentos +
+                '}';
+    }
+}
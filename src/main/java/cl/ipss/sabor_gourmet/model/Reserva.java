@@ -6,14 +6,31 @@ import java.time.LocalTime;
 
 /**
  * Entidad que representa una reserva en el restaurante.
- * Vincula un cliente con una mesa en una fecha y hora específica.
+ * Vincula un cliente con una mesa en una fecha y hora específica, durante una duración en minutos.
+ * La restricción única sobre (mesa, fecha, hora, vigente) impide en la base de datos
+ * dos reservas activas que empiecen a la misma hora; las canceladas quedan con vigente en NULL
+ * y por eso no participan de la restricción. Los solapamientos parciales los controla el
+ * índice de ocupación, que la base de datos no puede expresar como restricción.
  */
 @Entity
-@Table(name = "reservas")
+@Table(name = "reservas",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_reservas_mesa_fecha_hora_vigente",
+                columnNames = {"mesa_id", "fecha", "hora", "vigente"}),
+        indexes = {
+                @Index(name = "idx_reservas_cliente_fecha_hora", columnList = "cliente_id, fecha, hora, id"),
+                @Index(name = "idx_reservas_fecha_hora", columnList = "fecha, hora, id"),
+                @Index(name = "idx_reservas_estado_fecha_hora", columnList = "estado, fecha, hora, id"),
+                @Index(name = "idx_reservas_mesa_fecha_hora", columnList = "mesa_id, fecha, hora, id")
+        })
 public class Reserva {
 
+    /** Duración usada cuando la reserva se guarda sin que nadie la haya fijado. */
+    public static final int DURACION_POR_DEFECTO_MINUTOS = 90;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservas_seq")
+    @SequenceGenerator(name = "reservas_seq", sequenceName = "reservas_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -25,9 +42,14 @@ public class Reserva {
     @Column(nullable = false)
     private Integer numeroPersonas;
 
+    @Column(nullable = false)
+    private Integer duracionMinutos; // la mesa queda ocupada desde la hora durante estos minutos
+
     @Column(nullable = false, length = 20)
     private String estado = "ACTIVA"; // ACTIVA, CANCELADA
 
+    private Boolean vigente; // TRUE si está ACTIVA, NULL en otro caso
+
     @ManyToOne(optional = false, fetch = FetchType.EAGER)
     @JoinColumn(name = "cliente_id", nullable = false)
     private Cliente cliente;
@@ -50,6 +72,15 @@ public class Reserva {
         this.estado = "ACTIVA";
     }
 
+    @PrePersist
+    @PreUpdate
+    private void actualizarVigente() {
+        this.vigente = "ACTIVA".equals(estado) ? Boolean.TRUE : null;
+        if (duracionMinutos == null) {
+            duracionMinutos = DURACION_POR_DEFECTO_MINUTOS;
+        }
+    }
+
     // Getters y Setters
     public Long getId() {
         return id;
@@ -83,6 +114,22 @@ public class Reserva {
         this.numeroPersonas = numeroPersonas;
     }
 
+    public Integer getDuracionMinutos() {
+        return duracionMinutos;
+    }
+
+    public void setDuracionMinutos(Integer duracionMinutos) {
+        this.duracionMinutos = duracionMinutos;
+    }
+
+    /**
+     * Hora en que la mesa vuelve a quedar libre.
+     * @return hora de término de la reserva
+     */
+    public LocalTime getHoraFin() {
+        return hora.plusMinutes(duracionMinutos != null ? duracionMinutos : DURACION_POR_DEFECTO_MINUTOS);
+    }
+
     public String getEstado() {
         return estado;
     }
@@ -114,6 +161,7 @@ public class Reserva {
                 ", fecha=" + fecha +
                 ", hora=" + hora +
                 ", numeroPersonas=" + numeroPersonas +
+                ", duracionMinutos=" + duracionMinutos +
                 ", estado='" + estado + '\'' +
                 ", cliente=" + cliente +
                 ", mesa=" + mesa +
@@ -0,0 +1,123 @@
+package cl.ipss.sabor_gourmet.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Entidad que representa un grupo en la lista de espera.
+ * El cliente acepta cualquier hora de inicio entre horaDesde y horaHasta del día indicado.
+ * Cuando se libera una mesa en ese rango la solicitud puede convertirse en reserva; entonces
+ * queda ASIGNADA con el ID de la reserva creada.
+ * La restricción única sobre (cliente, fecha, esperando) impide que un cliente tenga dos
+ * solicitudes en espera el mismo día; las asignadas quedan con esperando en NULL y no cuentan.
+ */
+@Entity
+@Table(name = "solicitudes_espera",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_solicitudes_espera_cliente_fecha_esperando",
+                columnNames = {"cliente_id", "fecha", "esperando"}),
+        indexes = @Index(name = "idx_solicitudes_espera_fecha_estado", columnList = "fecha, estado, id"))
+public class SolicitudEspera {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "solicitudes_espera_seq")
+    @SequenceGenerator(name = "solicitudes_espera_seq", sequenceName = "solicitudes_espera_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate fecha;
+
+    @Column(nullable = false)
+    private LocalTime horaDesde;
+
+    @Column(nullable = false)
+    private LocalTime horaHasta;
+
+    @Column(nullable = false)
+    private Integer numeroPersonas;
+
+    @Column(nullable = false, length = 20)
+    private String estado = "ESPERANDO"; // ESPERANDO, ASIGNADA
+
+    private Boolean esperando; // TRUE si está ESPERANDO, NULL en otro caso
+
+    private Long reservaId;
+
+    @Column(nullable = false)
+    private LocalDateTime creada;
+
+    @ManyToOne(optional = false, fetch = FetchType.EAGER)
+    @JoinColumn(name = "cliente_id", nullable = false)
+    private Cliente cliente;
+
+    // Constructores
+    public SolicitudEspera() {
+    }
+
+    public SolicitudEspera(LocalDate fecha, LocalTime horaDesde, LocalTime horaHasta, Integer numeroPersonas,
+                           Cliente cliente) {
+        this.fecha = fecha;
+        this.horaDesde = horaDesde;
+        this.horaHasta = horaHasta;
+        this.numeroPersonas = numeroPersonas;
+        this.cliente = cliente;
+        this.creada = LocalDateTime.now();
+    }
+
+    @PrePersist
+    @PreUpdate
+    private void actualizarEsperando() {
+        this.esperando = "ESPERANDO".equals(estado) ? Boolean.TRUE : null;
+    }
+
+    // Getters y Setters
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDate getFecha() {
+        return fecha;
+    }
+
+    public LocalTime getHoraDesde() {
+        return horaDesde;
+    }
+
+    public LocalTime getHoraHasta() {
+        return horaHasta;
+    }
+
+    public Integer getNumeroPersonas() {
+        return numeroPersonas;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    public Long getReservaId() {
+        return reservaId;
+    }
+
+    public LocalDateTime getCreada() {
+        return creada;
+    }
+
+    public Cliente getCliente() {
+        return cliente;
+    }
+
+    @Override
+    public String toString() {
+        return "SolicitudEspera{" +
+                "id=" + id +
+                ", fecha=" + fecha +
+                ", horaDesde=" + horaDesde +
+                ", horaHasta=" + horaHasta +
+                ", numeroPersonas=" + numeroPersonas +
+                ", estado='" + estado + '\'' +
+                '}';
+    }
+}
@@ -4,6 +4,8 @@ import cl.ipss.sabor_gourmet.model.Cliente;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -18,4 +20,11 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
      * @return Optional con el cliente si existe
      */
     Optional<Cliente> findByEmail(String email);
+
+    /**
+     * Busca en una sola consulta los clientes con cualquiera de los emails indicados.
+     * @param emails emails a buscar
+     * @return clientes encontrados
+     */
+    List<Cliente> findByEmailIn(Collection<String> emails);
 }
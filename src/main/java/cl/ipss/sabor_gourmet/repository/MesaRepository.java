@@ -24,4 +24,10 @@ public interface MesaRepository extends JpaRepository<Mesa, Long> {
      * @return Mesa con ese número
      */
     Mesa findByNumero(Integer numero);
+
+    /**
+     * Cuenta las mesas activas sin cargarlas.
+     * @return cantidad de mesas activas
+     */
+    long countByActivaTrue();
 }
@@ -0,0 +1,67 @@
+package cl.ipss.sabor_gourmet.repository;
+
+import cl.ipss.sabor_gourmet.model.Notificacion;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositorio para la entidad Notificacion (outbox de avisos al cliente).
+ */
+@Repository
+public interface NotificacionRepository extends JpaRepository<Notificacion, Long> {
+    /**
+     * Busca las notificaciones pendientes cuyo próximo intento ya llegó, en orden de creación.
+     * Usa el índice por (estado, proximo_intento, id).
+     * @param estado estado a buscar, normalmente PENDIENTE
+     * @param ahora instante actual
+     * @param limite cuántas entregar como máximo
+     * @return notificaciones listas para enviar
+     */
+    List<Notificacion> findByEstadoAndProximoIntentoLessThanEqualOrderByIdAsc(String estado, LocalDateTime ahora,
+                                                                             Limit limite);
+
+    /**
+     * Marca como enviadas, en una sola sentencia, las notificaciones de un lote.
+     * @param ids IDs de las notificaciones enviadas
+     * @param enviada instante del envío
+     * @return cantidad de filas actualizadas
+     */
+    @Transactional
+    @Modifying
+    @Query("update Notificacion n set n.estado = 'ENVIADA', n.enviada = :enviada, n.ultimoError = null"
+            + " where n.id in :ids")
+    int marcarEnviadas(Collection<Long> ids, LocalDateTime enviada);
+
+    /**
+     * Registra un intento fallido sin cargar la entidad.
+     * @param id ID de la notificación
+     * @param estado PENDIENTE para reintentar o FALLIDA si se agotaron los intentos
+     * @param intentos intentos hechos hasta ahora
+     * @param proximoIntento cuándo volver a intentar
+     * @param error descripción del último error
+     * @return cantidad de filas actualizadas
+     */
+    @Transactional
+    @Modifying
+    @Query("update Notificacion n set n.estado = :estado, n.intentos = :intentos,"
+            + " n.proximoIntento = :proximoIntento, n.ultimoError = :error where n.id = :id")
+    int registrarFallo(Long id, String estado, Integer intentos, LocalDateTime proximoIntento, String error);
+
+    /**
+     * Borra en una sola sentencia las notificaciones enviadas antes de una fecha.
+     * @param antes límite de antigüedad
+     * @return cantidad de filas borradas
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from Notificacion n where n.estado = 'ENVIADA' and n.enviada < :antes")
+    int borrarEnviadasAntesDe(LocalDateTime antes);
+}
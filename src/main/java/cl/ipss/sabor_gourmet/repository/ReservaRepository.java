@@ -1,18 +1,30 @@
 package cl.ipss.sabor_gourmet.repository;
 
+import cl.ipss.sabor_gourmet.dto.ReservaExportada;
+import cl.ipss.sabor_gourmet.dto.ReservaResumen;
+import cl.ipss.sabor_gourmet.dto.SlotOcupado;
+import cl.ipss.sabor_gourmet.dto.SlotOcupadoEnFecha;
 import cl.ipss.sabor_gourmet.model.Reserva;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repositorio para la entidad Reserva.
  * Proporciona operaciones CRUD y búsquedas personalizadas.
  */
 @Repository
-public interface ReservaRepository extends JpaRepository<Reserva, Long> {
+public interface ReservaRepository extends JpaRepository<Reserva, Long>, JpaSpecificationExecutor<Reserva> {
     /**
      * Busca todas las reservas de una fecha específica.
      * @param fecha la fecha de búsqueda
@@ -27,4 +39,104 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
      * @return lista de reservas con ese estado en esa fecha
      */
     List<Reserva> findByFechaAndEstado(LocalDate fecha, String estado);
+
+    /**
+     * Obtiene el resumen de las reservas de una fecha, ordenadas por hora, con una sola consulta.
+     * @param fecha la fecha de búsqueda
+     * @return resúmenes de las reservas de esa fecha
+     */
+    @Query("""
+            select r.id as id, r.fecha as fecha, r.hora as hora, r.numeroPersonas as numeroPersonas,
+                   r.duracionMinutos as duracionMinutos, r.estado as estado,
+                   c.nombre as clienteNombre, c.email as clienteEmail, m.numero as mesaNumero
+            from Reserva r join r.cliente c join r.mesa m
+            where r.fecha = :fecha
+            order by r.hora, r.id""")
+    List<ReservaResumen> findResumenPorFecha(LocalDate fecha);
+
+    /**
+     * Obtiene el resumen de las reservas de una fecha con un estado dado, ordenadas por hora,
+     * con una sola consulta.
+     * @param fecha la fecha de búsqueda
+     * @param estado el estado a buscar
+     * @return resúmenes de las reservas con ese estado en esa fecha
+     */
+    @Query("""
+            select r.id as id, r.fecha as fecha, r.hora as hora, r.numeroPersonas as numeroPersonas,
+                   r.duracionMinutos as duracionMinutos, r.estado as estado,
+                   c.nombre as clienteNombre, c.email as clienteEmail, m.numero as mesaNumero
+            from Reserva r join r.cliente c join r.mesa m
+            where r.fecha = :fecha and r.estado = :estado
+            order by r.hora, r.id""")
+    List<ReservaResumen> findResumenPorFechaYEstado(LocalDate fecha, String estado);
+
+    /**
+     * Cuenta las reservas de una fecha con un estado dado sin cargarlas.
+     * @param fecha la fecha de búsqueda
+     * @param estado el estado a contar
+     * @return cantidad de reservas
+     */
+    long countByFechaAndEstado(LocalDate fecha, String estado);
+
+    /**
+     * Obtiene solo mesa, hora y duración de las reservas de una fecha con un estado dado.
+     * Evita cargar clientes y mesas completos cuando solo interesa la ocupación.
+     * @param fecha la fecha de búsqueda
+     * @param estado el estado a buscar
+     * @return lista de horarios ocupados por mesa
+     */
+    @Query("select r.mesa.id as mesaId, r.hora as hora, r.duracionMinutos as duracionMinutos"
+            + " from Reserva r where r.fecha = :fecha and r.estado = :estado")
+    List<SlotOcupado> findSlotsByFechaAndEstado(LocalDate fecha, String estado);
+
+    /**
+     * Obtiene fecha, mesa, hora y duración de las reservas de un rango de fechas con un estado dado.
+     * Una sola consulta sobre el índice (estado, fecha, hora) cubre el mes completo.
+     * @param desde primera fecha incluida
+     * @param hasta última fecha incluida
+     * @param estado el estado a buscar
+     * @return lista de horarios ocupados por fecha y mesa
+     */
+    @Query("select r.fecha as fecha, r.mesa.id as mesaId, r.hora as hora, r.duracionMinutos as duracionMinutos"
+            + " from Reserva r where r.fecha between :desde and :hasta and r.estado = :estado")
+    List<SlotOcupadoEnFecha> findSlotsEntreFechas(LocalDate desde, LocalDate hasta, String estado);
+
+    /**
+     * Recorre las reservas de un rango de fechas en orden (fecha, hora, id), apoyado en el índice por fecha.
+     * Devuelve un Stream que lee el cursor JDBC por bloques de fetch size; debe consumirse y cerrarse
+     * dentro de una transacción.
+     * @param desde primera fecha incluida
+     * @param hasta última fecha incluida
+     * @return flujo de reservas con cliente y número de mesa
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            select r.id as id, c.email as email, c.nombre as nombre, c.telefono as telefono,
+                   r.fecha as fecha, r.hora as hora, r.numeroPersonas as numeroPersonas,
+                   r.duracionMinutos as duracionMinutos, m.numero as mesa, r.estado as estado
+            from Reserva r join r.cliente c join r.mesa m
+            where r.fecha between :desde and :hasta
+            order by r.fecha, r.hora, r.id""")
+    Stream<ReservaExportada> streamPorRangoDeFechas(LocalDate desde, LocalDate hasta);
+
+    /**
+     * Cancela una reserva solo si sigue activa. También anula vigente, porque una
+     * actualización masiva no pasa por el @PreUpdate de la entidad.
+     * @param id ID de la reserva
+     * @return 1 si se canceló, 0 si ya no estaba activa o no existe
+     */
+    @Transactional
+    @Modifying
+    @Query("update Reserva r set r.estado = 'CANCELADA', r.vigente = null where r.id = :id and r.estado = 'ACTIVA'")
+    int cancelarSiActiva(Long id);
+
+    /**
+     * Elimina una reserva por su ID.
+     * @param id ID de la reserva
+     * @return 1 si se eliminó, 0 si ya no existía
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from Reserva r where r.id = :id")
+    int borrar(Long id);
 }
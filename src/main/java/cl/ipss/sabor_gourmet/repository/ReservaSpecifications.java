@@ -0,0 +1,48 @@
+package cl.ipss.sabor_gourmet.repository;
+
+import cl.ipss.sabor_gourmet.dto.ReservaFiltro;
+import cl.ipss.sabor_gourmet.model.Reserva;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criterios de búsqueda dinámicos para la entidad Reserva.
+ */
+public final class ReservaSpecifications {
+
+    private ReservaSpecifications() {
+    }
+
+    /**
+     * Construye la condición correspondiente a los filtros informados.
+     * @param filtro filtros del listado; los campos nulos o vacíos se ignoran
+     * @return especificación con todas las condiciones combinadas
+     */
+    public static Specification<Reserva> conFiltro(ReservaFiltro filtro) {
+        List<Specification<Reserva>> condiciones = new ArrayList<>();
+        if (filtro.getFechaInicio() != null) {
+            condiciones.add((r, q, cb) -> cb.greaterThanOrEqualTo(r.get("fecha"), filtro.getFechaInicio()));
+        }
+        if (filtro.getFechaFin() != null) {
+            condiciones.add((r, q, cb) -> cb.lessThanOrEqualTo(r.get("fecha"), filtro.getFechaFin()));
+        }
+        if (filtro.getEstado() != null && !filtro.getEstado().isEmpty()) {
+            condiciones.add((r, q, cb) -> cb.equal(r.get("estado"), filtro.getEstado()));
+        }
+        if (filtro.getMesaId() != null) {
+            condiciones.add((r, q, cb) -> cb.equal(r.get("mesa").get("id"), filtro.getMesaId()));
+        }
+        return Specification.allOf(condiciones);
+    }
+
+    /**
+     * Construye la condición de las reservas de un cliente.
+     * @param clienteId el ID del cliente
+     * @return especificación por cliente
+     */
+    public static Specification<Reserva> delCliente(Long clienteId) {
+        return (r, q, cb) -> cb.equal(r.get("cliente").get("id"), clienteId);
+    }
+}
@@ -0,0 +1,57 @@
+package cl.ipss.sabor_gourmet.repository;
+
+import cl.ipss.sabor_gourmet.model.SolicitudEspera;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio para la entidad SolicitudEspera (lista de espera).
+ */
+@Repository
+public interface SolicitudEsperaRepository extends JpaRepository<SolicitudEspera, Long> {
+    /**
+     * Busca los grupos que esperan un día, aceptan empezar a esa hora y caben en una mesa
+     * de la capacidad dada. Primero los más grandes, que aprovechan mejor la mesa, y a igual
+     * tamaño los que se anotaron antes.
+     * @param fecha el día liberado
+     * @param hora la hora liberada
+     * @param capacidad capacidad de la mesa liberada
+     * @param limite cuántos candidatos entregar como máximo
+     * @return candidatos en orden de preferencia
+     */
+    @Query("select s from SolicitudEspera s where s.fecha = :fecha and s.estado = 'ESPERANDO'"
+            + " and s.horaDesde <= :hora and s.horaHasta >= :hora and s.numeroPersonas <= :capacidad"
+            + " order by s.numeroPersonas desc, s.id asc")
+    List<SolicitudEspera> findCandidatas(LocalDate fecha, LocalTime hora, Integer capacidad, Limit limite);
+
+    /**
+     * Busca la solicitud que un cliente ya tiene en espera para un día.
+     * @param clienteId el ID del cliente
+     * @param fecha el día
+     * @param estado estado de la solicitud
+     * @return Optional con la solicitud si existe
+     */
+    Optional<SolicitudEspera> findFirstByClienteIdAndFechaAndEstado(Long clienteId, LocalDate fecha, String estado);
+
+    /**
+     * Marca una solicitud como asignada, solo si todavía estaba esperando. También anula
+     * esperando, porque una actualización masiva no pasa por el @PreUpdate de la entidad.
+     * @param id ID de la solicitud
+     * @param reservaId ID de la reserva creada para ella
+     * @return 1 si se marcó, 0 si ya no estaba esperando
+     */
+    @Transactional
+    @Modifying
+    @Query("update SolicitudEspera s set s.estado = 'ASIGNADA', s.esperando = null, s.reservaId = :reservaId"
+            + " where s.id = :id and s.estado = 'ESPERANDO'")
+    int marcarAsignada(Long id, Long reservaId);
+}
@@ -0,0 +1,135 @@
+package cl.ipss.sabor_gourmet.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Control de admisión de las solicitudes que crean reservas o se anotan en la lista de espera.
+ * Antes de tocar la base de datos cada intento pasa por una cubeta de fichas por IP y otra por
+ * email, que frenan los reintentos automáticos, y luego por un tope de reservas en curso que
+ * deja conexiones libres para el resto de la aplicación. Si no hay turno dentro de la espera
+ * configurada se rechaza enseguida, para que las solicitudes admitidas mantengan baja latencia.
+ */
+@Component
+public class AdmisionReservas {
+
+    /** Claves por limitador a partir de las cuales se descartan las que ya no limitan nada. */
+    private static final int MAXIMO_CLAVES = 100_000;
+
+    public enum Resultado { ADMITIDA, LIMITE_IP, LIMITE_EMAIL, SATURADA }
+
+    private final LimitadorTasa porIp;
+    private final LimitadorTasa porEmail;
+    private final Semaphore turnos;
+    private final boolean conTope;
+    private final long esperaMs;
+
+    private final Counter admitidas;
+    private final Counter limiteIp;
+    private final Counter limiteEmail;
+    private final Counter saturadas;
+
+    public AdmisionReservas(@Value("${sabor.admision.ip.por-minuto:30}") int ipPorMinuto,
+                            @Value("${sabor.admision.ip.rafaga:10}") int ipRafaga,
+                            @Value("${sabor.admision.email.por-minuto:6}") int emailPorMinuto,
+                            @Value("${sabor.admision.email.rafaga:3}") int emailRafaga,
+                            @Value("${sabor.admision.concurrencia.maximo:6}") int maximoEnCurso,
+                            @Value("${sabor.admision.concurrencia.espera-ms:300}") long esperaMs,
+                            MeterRegistry meterRegistry) {
+        this.porIp = new LimitadorTasa(ipPorMinuto, ipRafaga, MAXIMO_CLAVES);
+        this.porEmail = new LimitadorTasa(emailPorMinuto, emailRafaga, MAXIMO_CLAVES);
+        this.turnos = new Semaphore(Math.max(0, maximoEnCurso));
+        this.conTope = maximoEnCurso > 0;
+        this.esperaMs = esperaMs;
+        this.admitidas = meterRegistry.counter("sabor.admision.reservas", "resultado", "admitida");
+        this.limiteIp = meterRegistry.counter("sabor.admision.reservas", "resultado", "limite_ip");
+        this.limiteEmail = meterRegistry.counter("sabor.admision.reservas", "resultado", "limite_email");
+        this.saturadas = meterRegistry.counter("sabor.admision.reservas", "resultado", "saturada");
+        Gauge.builder("sabor.admision.reservas.en.curso", turnos, t -> Math.max(0, maximoEnCurso) - t.availablePermits())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Decide si se atiende un intento de reserva. Si se admite, el turno queda tomado hasta
+     * cerrar la admisión, así que debe usarse en un try-with-resources. Con un máximo de
+     * reservas en curso de 0 no hay tope, igual que un límite por minuto de 0 desactiva ese límite.
+     * @param ip dirección del cliente
+     * @param email email con que se quiere reservar
+     * @return la admisión, admitida o con el motivo del rechazo
+     */
+    public Admision admitir(String ip, String email) {
+        long espera = porIp.intentar(ip);
+        if (espera > 0) {
+            limiteIp.increment();
+            return new Admision(Resultado.LIMITE_IP, espera, null);
+        }
+        espera = porEmail.intentar(email.trim().toLowerCase(Locale.ROOT));
+        if (espera > 0) {
+            limiteEmail.increment();
+            return new Admision(Resultado.LIMITE_EMAIL, espera, null);
+        }
+        if (!conTope) {
+            admitidas.increment();
+            return new Admision(Resultado.ADMITIDA, 0, null);
+        }
+        boolean conTurno;
+        try {
+            conTurno = turnos.tryAcquire(esperaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            conTurno = false;
+        }
+        if (!conTurno) {
+            saturadas.increment();
+            return new Admision(Resultado.SATURADA, TimeUnit.SECONDS.toNanos(1), null);
+        }
+        admitidas.increment();
+        return new Admision(Resultado.ADMITIDA, 0, turnos);
+    }
+
+    /**
+     * Resultado de la admisión de un intento. Cerrarla devuelve el turno si se había tomado.
+     */
+    public static final class Admision implements AutoCloseable {
+
+        private final Resultado resultado;
+        private final long esperaNanos;
+        private Semaphore turno;
+
+        private Admision(Resultado resultado, long esperaNanos, Semaphore turno) {
+            this.resultado = resultado;
+            this.esperaNanos = esperaNanos;
+            this.turno = turno;
+        }
+
+        public Resultado getResultado() {
+            return resultado;
+        }
+
+        public boolean isAdmitida() {
+            return resultado == Resultado.ADMITIDA;
+        }
+
+        /**
+         * @return segundos que conviene esperar antes de reintentar, redondeados hacia arriba
+         */
+        public long getReintentarEnSegundos() {
+            return Math.max(1, (esperaNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        }
+
+        @Override
+        public void close() {
+            if (turno != null) {
+                turno.release();
+                turno = null;
+            }
+        }
+    }
+}
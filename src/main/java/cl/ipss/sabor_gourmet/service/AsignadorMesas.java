@@ -0,0 +1,68 @@
+package cl.ipss.sabor_gourmet.service;
+
+import cl.ipss.sabor_gourmet.model.Mesa;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Motor de asignación automática de mesas por mejor ajuste.
+ * Recorre las mesas activas ordenadas por capacidad desde la primera que alcanza para el grupo
+ * y descarta las ocupadas según el índice de ocupación, así las mesas grandes quedan libres
+ * para los grupos grandes. No consulta la base de datos una vez cargado el día.
+ */
+@Component
+public class AsignadorMesas {
+
+    private final MesaService mesaService;
+    private final IndiceOcupacion indiceOcupacion;
+    private final PoliticaDuracion politicaDuracion;
+
+    public AsignadorMesas(MesaService mesaService, IndiceOcupacion indiceOcupacion,
+                          PoliticaDuracion politicaDuracion) {
+        this.mesaService = mesaService;
+        this.indiceOcupacion = indiceOcupacion;
+        this.politicaDuracion = politicaDuracion;
+    }
+
+    /**
+     * Lista las mesas libres con capacidad suficiente, de la más ajustada a la más holgada.
+     * Cada mesa se evalúa con la duración que tendría la reserva en ella.
+     * @param fecha la fecha de la reserva
+     * @param hora la hora de la reserva
+     * @param numeroPersonas número de personas del grupo
+     * @return mesas candidatas en orden de preferencia; vacía si no hay ninguna
+     */
+    public List<Mesa> candidatas(LocalDate fecha, LocalTime hora, int numeroPersonas) {
+        List<Mesa> mesas = mesaService.listarActivasPorCapacidad();
+        List<Mesa> libres = new ArrayList<>();
+        for (int i = primeraConCapacidad(mesas, numeroPersonas); i < mesas.size(); i++) {
+            Mesa mesa = mesas.get(i);
+            int duracion = politicaDuracion.duracionPara(mesa, numeroPersonas);
+            if (!indiceOcupacion.estaOcupada(mesa.getId(), fecha, hora, duracion)) {
+                libres.add(mesa);
+            }
+        }
+        return libres;
+    }
+
+    /**
+     * Búsqueda binaria de la primera mesa con capacidad mayor o igual al grupo.
+     */
+    private static int primeraConCapacidad(List<Mesa> mesas, int numeroPersonas) {
+        int desde = 0;
+        int hasta = mesas.size();
+        while (desde < hasta) {
+            int medio = (desde + hasta) >>> 1;
+            if (mesas.get(medio).getCapacidad() < numeroPersonas) {
+                desde = medio + 1;
+            } else {
+                hasta = medio;
+            }
+        }
+        return desde;
+    }
+}
@@ -0,0 +1,71 @@
+package cl.ipss.sabor_gourmet.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Conjunto fijo de locks repartidos por (mesa, fecha).
+ * Serializa las reservas que pueden solaparse en una misma mesa y día sin bloquear
+ * las que apuntan a otras mesas o fechas.
+ */
+@Component
+public class BloqueosReserva {
+
+    private static final int FRANJAS = 256; // potencia de dos
+
+    private final Lock[] locks = new Lock[FRANJAS];
+
+    public BloqueosReserva() {
+        for (int i = 0; i < FRANJAS; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Devuelve el lock que protege el día de una mesa.
+     * Días o mesas distintos pueden compartir lock, pero una misma mesa y día siempre usa el mismo.
+     * @param mesaId el ID de la mesa
+     * @param fecha la fecha de la reserva
+     * @return el lock de la franja correspondiente
+     */
+    public Lock bloqueoPara(Long mesaId, LocalDate fecha) {
+        return locks[franja(mesaId, fecha)];
+    }
+
+    /**
+     * Devuelve los locks que protegen los días de mesa de varios elementos, sin repetir y
+     * ordenados por franja. Quien necesita más de uno debe tomarlos en este orden, así dos
+     * operaciones que toman varios a la vez no pueden bloquearse entre sí.
+     * @param elementos elementos que se van a escribir
+     * @param mesaId ID de la mesa de cada elemento
+     * @param fecha fecha de cada elemento
+     * @return locks en el orden en que deben tomarse
+     */
+    public <T> List<Lock> bloqueosPara(Collection<T> elementos, Function<T, Long> mesaId,
+                                       Function<T, LocalDate> fecha) {
+        TreeSet<Integer> franjas = new TreeSet<>();
+        for (T elemento : elementos) {
+            franjas.add(franja(mesaId.apply(elemento), fecha.apply(elemento)));
+        }
+        List<Lock> bloqueos = new ArrayList<>(franjas.size());
+        for (int franja : franjas) {
+            bloqueos.add(locks[franja]);
+        }
+        return bloqueos;
+    }
+
+    private static int franja(Long mesaId, LocalDate fecha) {
+        int h = mesaId.hashCode();
+        h = 31 * h + fecha.hashCode();
+        h ^= (h >>> 16);
+        return h & (FRANJAS - 1);
+    }
+}
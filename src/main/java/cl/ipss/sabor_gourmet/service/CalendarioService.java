@@ -0,0 +1,260 @@
+package cl.ipss.sabor_gourmet.service;
+
+import cl.ipss.sabor_gourmet.dto.CalendarioMes;
+import cl.ipss.sabor_gourmet.dto.DiaCalendario;
+import cl.ipss.sabor_gourmet.dto.SlotOcupadoEnFecha;
+import cl.ipss.sabor_gourmet.event.ReservaEvento;
+import cl.ipss.sabor_gourmet.event.ReservasImportadasEvento;
+import cl.ipss.sabor_gourmet.model.Mesa;
+import cl.ipss.sabor_gourmet.repository.ReservaRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Calendario mensual de horas libres para reservar.
+ * La ocupación de un mes se lee con una sola consulta por rango y se guarda como un bitset
+ * de minutos por día y mesa; esa foto queda en caché hasta que una reserva del mes cambia.
+ * Con la foto en memoria, cada consulta solo cruza los bitsets con las mesas activas que
+ * alcanzan para el grupo y la duración que tendría la reserva en cada una.
+ * Solo se consultan los meses desde el actual hasta "meses-adelante" meses después; fuera de
+ * ese rango no hay horas libres que mostrar. Así la caché nunca guarda más que esos meses, y al
+ * guardar un mes nuevo se descartan los que ya quedaron en el pasado.
+ */
+@Service
+@Timed(value = "sabor.servicio", histogram = true)
+public class CalendarioService {
+
+    private static final int MINUTOS_POR_DIA = 24 * 60;
+    private static final int PALABRAS_POR_DIA = (MINUTOS_POR_DIA + 63) / 64;
+
+    private final ReservaRepository reservaRepository;
+    private final MesaService mesaService;
+    private final PoliticaDuracion politicaDuracion;
+    private final List<LocalTime> horasReservables;
+    private final int mesesAdelante;
+
+    private final ConcurrentHashMap<YearMonth, OcupacionMes> meses = new ConcurrentHashMap<>();
+    private final AtomicLong versionOcupacion = new AtomicLong();
+
+    public CalendarioService(ReservaRepository reservaRepository, MesaService mesaService,
+                             PoliticaDuracion politicaDuracion,
+                             @Value("${sabor.calendario.primera-hora:12:00}") String primeraHora,
+                             @Value("${sabor.calendario.ultima-hora:22:00}") String ultimaHora,
+                             @Value("${sabor.calendario.intervalo-minutos:30}") int intervaloMinutos,
+                             @Value("${sabor.calendario.meses-adelante:12}") int mesesAdelante) {
+        this.reservaRepository = reservaRepository;
+        this.mesesAdelante = Math.max(0, mesesAdelante);
+        this.mesaService = mesaService;
+        this.politicaDuracion = politicaDuracion;
+        LocalTime ultima = LocalTime.parse(ultimaHora);
+        List<LocalTime> horas = new ArrayList<>();
+        for (LocalTime hora = LocalTime.parse(primeraHora); !hora.isAfter(ultima);
+             hora = hora.plusMinutes(intervaloMinutos)) {
+            horas.add(hora);
+            if (hora.plusMinutes(intervaloMinutos).isBefore(hora)) {
+                break; // pasó la medianoche
+            }
+        }
+        this.horasReservables = List.copyOf(horas);
+    }
+
+    /**
+     * Indica si un mes está en el rango que se puede consultar: desde el actual hasta
+     * "meses-adelante" meses después.
+     * @param mes el mes a revisar
+     * @return true si el calendario de ese mes puede tener horas libres
+     */
+    public boolean mesConsultable(YearMonth mes) {
+        YearMonth actual = YearMonth.now();
+        return !mes.isBefore(actual) && !mes.isAfter(actual.plusMonths(mesesAdelante));
+    }
+
+    /**
+     * Calcula las horas en que un grupo puede reservar cada día de un mes.
+     * Una hora está libre si alguna mesa activa con capacidad suficiente no tiene reservas
+     * que se solapen con la duración que tendría la reserva en esa mesa. Los días pasados se omiten.
+     * @param mes el mes a consultar
+     * @param numeroPersonas número de personas del grupo
+     * @return calendario con las horas libres de cada día; sin días si el mes está fuera del rango
+     */
+    public CalendarioMes calendario(YearMonth mes, int numeroPersonas) {
+        if (!mesConsultable(mes)) {
+            return new CalendarioMes(mes, numeroPersonas, List.of());
+        }
+        OcupacionMes ocupacion = ocupacion(mes);
+        List<Mesa> mesas = mesasParaGrupo(numeroPersonas);
+        int[] duraciones = duraciones(mesas, numeroPersonas);
+
+        LocalDate hoy = LocalDate.now();
+        List<DiaCalendario> dias = new ArrayList<>();
+        for (int d = 1; d <= mes.lengthOfMonth(); d++) {
+            LocalDate fecha = mes.atDay(d);
+            if (fecha.isBefore(hoy)) {
+                continue;
+            }
+            dias.add(new DiaCalendario(fecha, horasLibres(ocupacion, fecha, mesas, duraciones)));
+        }
+        return new CalendarioMes(mes, numeroPersonas, dias);
+    }
+
+    /**
+     * Calcula las horas en que un grupo puede reservar un día, con la misma regla que el calendario mensual.
+     * @param fecha el día a consultar
+     * @param numeroPersonas número de personas del grupo
+     * @return horas libres del día; vacío si el día ya pasó o su mes está fuera del rango
+     */
+    public DiaCalendario dia(LocalDate fecha, int numeroPersonas) {
+        if (fecha.isBefore(LocalDate.now()) || !mesConsultable(YearMonth.from(fecha))) {
+            return new DiaCalendario(fecha, List.of());
+        }
+        List<Mesa> mesas = mesasParaGrupo(numeroPersonas);
+        return new DiaCalendario(fecha, horasLibres(ocupacion(YearMonth.from(fecha)), fecha, mesas,
+                duraciones(mesas, numeroPersonas)));
+    }
+
+    /**
+     * Descarta la foto del mes de una reserva que cambió. Una actualización puede haber
+     * movido la reserva desde otro mes, así que en ese caso se descartan todos.
+     * @param evento el evento de la reserva
+     */
+    @EventListener
+    public void alCambiarReserva(ReservaEvento evento) {
+        synchronized (this) {
+            versionOcupacion.incrementAndGet();
+            if (evento.getTipo() == ReservaEvento.Tipo.ACTUALIZADA) {
+                meses.clear();
+            } else {
+                meses.remove(YearMonth.from(evento.getFecha()));
+            }
+        }
+    }
+
+    /**
+     * Descarta las fotos de los meses en que un lote importado agregó reservas activas.
+     * Las importadas canceladas no ocupan mesas, así que no descartan nada.
+     * @param evento resumen del lote importado
+     */
+    @EventListener
+    public void alImportarReservas(ReservasImportadasEvento evento) {
+        if (evento.getActivasPorFecha().isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            versionOcupacion.incrementAndGet();
+            for (LocalDate fecha : evento.getActivasPorFecha().keySet()) {
+                meses.remove(YearMonth.from(fecha));
+            }
+        }
+    }
+
+    private List<Mesa> mesasParaGrupo(int numeroPersonas) {
+        return mesaService.listarActivasPorCapacidad().stream()
+                .filter(mesa -> mesa.getCapacidad() >= numeroPersonas)
+                .toList();
+    }
+
+    private int[] duraciones(List<Mesa> mesas, int numeroPersonas) {
+        int[] duraciones = new int[mesas.size()];
+        for (int i = 0; i < mesas.size(); i++) {
+            duraciones[i] = politicaDuracion.duracionPara(mesas.get(i), numeroPersonas);
+        }
+        return duraciones;
+    }
+
+    private List<String> horasLibres(OcupacionMes ocupacion, LocalDate fecha, List<Mesa> mesas, int[] duraciones) {
+        Map<Long, long[]> ocupadasDelDia = ocupacion.dias.getOrDefault(fecha, Map.of());
+        List<String> horasLibres = new ArrayList<>();
+        for (LocalTime hora : horasReservables) {
+            int inicio = IntervalosOcupados.minuto(hora);
+            for (int i = 0; i < mesas.size(); i++) {
+                long[] bits = ocupadasDelDia.get(mesas.get(i).getId());
+                if (bits == null || libre(bits, inicio, IntervalosOcupados.fin(inicio, duraciones[i]))) {
+                    horasLibres.add(hora.toString());
+                    break;
+                }
+            }
+        }
+        return horasLibres;
+    }
+
+    private OcupacionMes ocupacion(YearMonth mes) {
+        OcupacionMes actual = meses.get(mes);
+        if (actual != null) {
+            return actual;
+        }
+        long version = versionOcupacion.get();
+        OcupacionMes nueva = new OcupacionMes(reservaRepository.findSlotsEntreFechas(
+                mes.atDay(1), mes.atEndOfMonth(), "ACTIVA"));
+        synchronized (this) {
+            // Si una reserva cambió mientras se leía, esta foto puede estar vieja: no se guarda
+            if (versionOcupacion.get() == version) {
+                YearMonth mesActual = YearMonth.now();
+                meses.keySet().removeIf(guardado -> guardado.isBefore(mesActual));
+                meses.put(mes, nueva);
+            }
+        }
+        return nueva;
+    }
+
+    /**
+     * Indica si ningún minuto del intervalo [desde, hasta) está marcado.
+     */
+    private static boolean libre(long[] bits, int desde, int hasta) {
+        int primera = desde >>> 6;
+        int ultima = (hasta - 1) >>> 6;
+        for (int palabra = primera; palabra <= ultima; palabra++) {
+            if ((bits[palabra] & mascara(palabra, primera, ultima, desde, hasta)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void marcar(long[] bits, int desde, int hasta) {
+        int primera = desde >>> 6;
+        int ultima = (hasta - 1) >>> 6;
+        for (int palabra = primera; palabra <= ultima; palabra++) {
+            bits[palabra] |= mascara(palabra, primera, ultima, desde, hasta);
+        }
+    }
+
+    private static long mascara(int palabra, int primera, int ultima, int desde, int hasta) {
+        long mascara = -1L;
+        if (palabra == primera) {
+            mascara &= -1L << (desde & 63);
+        }
+        if (palabra == ultima) {
+            mascara &= -1L >>> (63 - ((hasta - 1) & 63));
+        }
+        return mascara;
+    }
+
+    /**
+     * Foto inmutable de la ocupación de un mes: por día y mesa, un bitset con un bit por minuto.
+     */
+    private static final class OcupacionMes {
+
+        private final Map<LocalDate, Map<Long, long[]>> dias = new HashMap<>();
+
+        OcupacionMes(List<SlotOcupadoEnFecha> ocupados) {
+            for (SlotOcupadoEnFecha ocupado : ocupados) {
+                long[] bits = dias.computeIfAbsent(ocupado.getFecha(), fecha -> new HashMap<>())
+                        .computeIfAbsent(ocupado.getMesaId(), id -> new long[PALABRAS_POR_DIA]);
+                int inicio = IntervalosOcupados.minuto(ocupado.getHora());
+                marcar(bits, inicio, IntervalosOcupados.fin(inicio, ocupado.getDuracionMinutos()));
+            }
+        }
+    }
+}
@@ -1,23 +1,48 @@
 package cl.ipss.sabor_gourmet.service;
 
+import cl.ipss.sabor_gourmet.dto.EstadisticasCache;
 import cl.ipss.sabor_gourmet.model.Cliente;
 import cl.ipss.sabor_gourmet.repository.ClienteRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Servicio para gestionar operaciones relacionadas con clientes.
  * Encapsula la lógica de negocio de clientes.
+ * Los clientes buscados por email se guardan en una caché LRU acotada, así un cliente
+ * que vuelve a reservar no cuesta ninguna consulta. La caché solo se limpia al actualizar
+ * o eliminar un cliente, que son las únicas operaciones que cambian a quién corresponde un email.
+ * Los clientes de la caché se comparten entre solicitudes y no deben modificarse.
  */
 @Service
+@Timed(value = "sabor.servicio", histogram = true)
 public class ClienteService {
 
     private final ClienteRepository clienteRepository;
 
-    public ClienteService(ClienteRepository clienteRepository) {
+    private final Map<String, Cliente> porEmail;
+    private final AtomicLong versionCache = new AtomicLong();
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+
+    public ClienteService(ClienteRepository clienteRepository,
+                          @Value("${sabor.clientes.cache.maximo:10000}") int maximoEnCache) {
         this.clienteRepository = clienteRepository;
+        this.porEmail = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Cliente> masAntigua) {
+                return size() > maximoEnCache;
+            }
+        };
     }
 
     /**
@@ -43,7 +68,14 @@ public class ClienteService {
      * @return Optional con el cliente si existe
      */
     public Optional<Cliente> buscarPorEmail(String email) {
-        return clienteRepository.findByEmail(email);
+        Cliente enCache = desdeCache(email);
+        if (enCache != null) {
+            return Optional.of(enCache);
+        }
+        long version = versionCache.get();
+        Optional<Cliente> cliente = clienteRepository.findByEmail(email);
+        cliente.ifPresent(c -> guardarEnCache(email, c, version));
+        return cliente;
     }
 
     /**
@@ -55,13 +87,38 @@ public class ClienteService {
         return clienteRepository.save(cliente);
     }
 
+    /**
+     * Devuelve el cliente con ese email o, si no existe, lo crea con los datos dados.
+     * Si otra solicitud crea el mismo email entre la búsqueda y el guardado, la restricción
+     * única rechaza el segundo insert y se devuelve el cliente que ganó, en vez de fallar.
+     * @param nombre nombre del cliente nuevo
+     * @param email email del cliente
+     * @param telefono teléfono del cliente nuevo
+     * @return el cliente existente o el recién creado
+     */
+    public Cliente buscarOCrear(String nombre, String email, String telefono) {
+        Cliente enCache = desdeCache(email);
+        if (enCache != null) {
+            return enCache;
+        }
+        long version = versionCache.get();
+        Cliente cliente = clienteRepository.findByEmail(email)
+                .orElseGet(() -> insertarOLeer(new Cliente(nombre, email, telefono)));
+        guardarEnCache(email, cliente, version);
+        return cliente;
+    }
+
     /**
      * Actualiza un cliente existente.
      * @param cliente el cliente a actualizar
      * @return el cliente actualizado
      */
     public Cliente actualizar(Cliente cliente) {
-        return clienteRepository.save(cliente);
+        try {
+            return clienteRepository.save(cliente);
+        } finally {
+            invalidarCache();
+        }
     }
 
     /**
@@ -69,6 +126,52 @@ public class ClienteService {
      * @param id el ID del cliente a eliminar
      */
     public void eliminar(Long id) {
-        clienteRepository.deleteById(id);
+        try {
+            clienteRepository.deleteById(id);
+        } finally {
+            invalidarCache();
+        }
+    }
+
+    /**
+     * Entrega los aciertos y fallos acumulados de la caché de clientes por email.
+     * @return estadísticas de la caché
+     */
+    public EstadisticasCache estadisticasCache() {
+        return new EstadisticasCache(aciertos.sum(), fallos.sum());
+    }
+
+    private Cliente insertarOLeer(Cliente nuevo) {
+        try {
+            return clienteRepository.save(nuevo);
+        } catch (DataIntegrityViolationException e) {
+            // Otra solicitud creó el mismo email: ya está confirmado, así que se lee
+            return clienteRepository.findByEmail(nuevo.getEmail()).orElseThrow(() -> e);
+        }
+    }
+
+    private Cliente desdeCache(String email) {
+        Cliente cliente;
+        synchronized (porEmail) {
+            cliente = porEmail.get(email);
+        }
+        (cliente != null ? aciertos : fallos).increment();
+        return cliente;
+    }
+
+    private void guardarEnCache(String email, Cliente cliente, long version) {
+        synchronized (porEmail) {
+            // Si un cliente cambió mientras se leía, lo leído puede estar viejo: no se guarda
+            if (versionCache.get() == version) {
+                porEmail.put(email, cliente);
+            }
+        }
+    }
+
+    private void invalidarCache() {
+        synchronized (porEmail) {
+            versionCache.incrementAndGet();
+            porEmail.clear();
+        }
     }
 }
@@ -0,0 +1,139 @@
+package cl.ipss.sabor_gourmet.service;
+
+import cl.ipss.sabor_gourmet.model.Notificacion;
+import cl.ipss.sabor_gourmet.repository.NotificacionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Vacía el outbox de notificaciones en segundo plano: toma lotes de pendientes en orden,
+ * los entrega al enviador y marca los enviados con una sola sentencia por lote.
+ * Un envío fallido se reintenta con espera exponencial hasta agotar los intentos, y entonces
+ * queda como FALLIDA para revisarla a mano. La entrega es al menos una vez: si la aplicación
+ * se detiene entre el envío y la marca, la notificación se vuelve a enviar al reiniciar.
+ * Corre en el único hilo del programador de Spring, así que nunca hay dos lotes a la vez.
+ */
+@Component
+public class DespachadorNotificaciones {
+
+    private static final Logger log = LoggerFactory.getLogger(DespachadorNotificaciones.class);
+    private static final Duration ESPERA_MAXIMA = Duration.ofHours(1);
+    private static final int LARGO_MAXIMO_ERROR = 500;
+
+    private final NotificacionRepository notificacionRepository;
+    private final EnviadorNotificaciones enviador;
+    private final int tamanoLote;
+    private final int maximoIntentos;
+    private final Duration esperaBase;
+    private final Duration retencion;
+
+    private final Counter enviadas;
+    private final Counter reintentos;
+    private final Counter fallidas;
+    private final Timer demora;
+
+    public DespachadorNotificaciones(NotificacionRepository notificacionRepository, EnviadorNotificaciones enviador,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${sabor.notificaciones.tamano-lote:100}") int tamanoLote,
+                                     @Value("${sabor.notificaciones.maximo-intentos:8}") int maximoIntentos,
+                                     @Value("${sabor.notificaciones.reintento-base-ms:5000}") long reintentoBaseMs,
+                                     @Value("${sabor.notificaciones.retencion-dias:30}") int retencionDias) {
+        this.notificacionRepository = notificacionRepository;
+        this.enviador = enviador;
+        this.tamanoLote = tamanoLote;
+        this.maximoIntentos = maximoIntentos;
+        this.esperaBase = Duration.ofMillis(reintentoBaseMs);
+        this.retencion = Duration.ofDays(retencionDias);
+        this.enviadas = meterRegistry.counter("sabor.notificaciones", "resultado", "enviada");
+        this.reintentos = meterRegistry.counter("sabor.notificaciones", "resultado", "reintento");
+        this.fallidas = meterRegistry.counter("sabor.notificaciones", "resultado", "fallida");
+        this.demora = Timer.builder("sabor.notificaciones.demora")
+                .description("Tiempo desde que se registra una notificación hasta que se envía")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Envía lotes de notificaciones pendientes hasta que no quede ninguna lista para enviar.
+     * @return cantidad de notificaciones enviadas
+     */
+    @Scheduled(fixedDelayString = "${sabor.notificaciones.intervalo-ms:1000}",
+            initialDelayString = "${sabor.notificaciones.intervalo-ms:1000}")
+    public int despachar() {
+        int total = 0;
+        List<Notificacion> lote;
+        do {
+            lote = notificacionRepository.findByEstadoAndProximoIntentoLessThanEqualOrderByIdAsc(
+                    "PENDIENTE", LocalDateTime.now(), Limit.of(tamanoLote));
+            total += despacharLote(lote);
+        } while (lote.size() == tamanoLote);
+        return total;
+    }
+
+    /**
+     * Borra las notificaciones enviadas hace más tiempo que la retención configurada.
+     */
+    @Scheduled(cron = "${sabor.notificaciones.limpieza-cron:0 0 4 * * *}")
+    public void limpiar() {
+        int borradas = notificacionRepository.borrarEnviadasAntesDe(LocalDateTime.now().minus(retencion));
+        if (borradas > 0) {
+            log.info("Notificaciones enviadas borradas: {}", borradas);
+        }
+    }
+
+    private int despacharLote(List<Notificacion> lote) {
+        List<Long> enviadasDelLote = new ArrayList<>(lote.size());
+        for (Notificacion notificacion : lote) {
+            try {
+                enviador.enviar(notificacion);
+                enviadasDelLote.add(notificacion.getId());
+                demora.record(Duration.between(notificacion.getCreada(), LocalDateTime.now()));
+            } catch (RuntimeException e) {
+                registrarFallo(notificacion, e);
+            }
+        }
+        if (!enviadasDelLote.isEmpty()) {
+            notificacionRepository.marcarEnviadas(enviadasDelLote, LocalDateTime.now());
+            enviadas.increment(enviadasDelLote.size());
+        }
+        return enviadasDelLote.size();
+    }
+
+    private void registrarFallo(Notificacion notificacion, RuntimeException error) {
+        int intentos = notificacion.getIntentos() + 1;
+        String mensaje = String.valueOf(error.getMessage());
+        if (mensaje.length() > LARGO_MAXIMO_ERROR) {
+            mensaje = mensaje.substring(0, LARGO_MAXIMO_ERROR);
+        }
+        if (intentos >= maximoIntentos) {
+            notificacionRepository.registrarFallo(notificacion.getId(), "FALLIDA", intentos,
+                    notificacion.getProximoIntento(), mensaje);
+            fallidas.increment();
+            log.warn("Notificación {} sin enviar tras {} intentos, queda FALLIDA: {}",
+                    notificacion.getId(), intentos, mensaje);
+            return;
+        }
+        notificacionRepository.registrarFallo(notificacion.getId(), "PENDIENTE", intentos,
+                LocalDateTime.now().plus(espera(intentos)), mensaje);
+        reintentos.increment();
+    }
+
+    /**
+     * Espera antes del siguiente intento: se duplica con cada fallo, hasta una hora.
+     */
+    private Duration espera(int intentos) {
+        Duration espera = esperaBase.multipliedBy(1L << Math.min(intentos - 1, 20));
+        return espera.compareTo(ESPERA_MAXIMA) > 0 ? ESPERA_MAXIMA : espera;
+    }
+}
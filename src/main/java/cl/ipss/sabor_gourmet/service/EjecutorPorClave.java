@@ -0,0 +1,54 @@
+package cl.ipss.sabor_gourmet.service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ejecuta tareas en segundo plano repartidas en carriles de un solo hilo según su clave.
+ * Las tareas con la misma clave van siempre al mismo carril, así que corren de a una y en el
+ * orden en que llegaron; las de claves distintas pueden avanzar en paralelo. Encolar no
+ * bloquea: la cola de cada carril no tiene límite.
+ */
+final class EjecutorPorClave {
+
+    private final ExecutorService[] carriles;
+
+    EjecutorPorClave(String nombre, int cantidadCarriles) {
+        this.carriles = new ExecutorService[cantidadCarriles];
+        for (int i = 0; i < cantidadCarriles; i++) {
+            String nombreHilo = nombre + "-" + i;
+            carriles[i] = Executors.newSingleThreadExecutor(tarea -> {
+                Thread hilo = new Thread(tarea, nombreHilo);
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        }
+    }
+
+    /**
+     * Encola una tarea detrás de las anteriores con la misma clave.
+     * @param clave clave que define el orden
+     * @param tarea tarea a ejecutar
+     */
+    void ejecutar(Object clave, Runnable tarea) {
+        int h = clave.hashCode();
+        carriles[Math.floorMod(h ^ (h >>> 16), carriles.length)].execute(tarea);
+    }
+
+    /**
+     * Deja de aceptar tareas y espera un momento a que terminen las encoladas.
+     */
+    void cerrar() {
+        for (ExecutorService carril : carriles) {
+            carril.shutdown();
+        }
+        try {
+            for (ExecutorService carril : carriles) {
+                carril.awaitTermination(5, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package cl.ipss.sabor_gourmet.service;
+
+import cl.ipss.sabor_gourmet.model.Notificacion;
+
+/**
+ * Canal por el que salen las notificaciones al cliente (email, SMS, etc.).
+ * Lo llama solo el despachador, en segundo plano. Para usar un proveedor real basta con
+ * declarar otro bean de este tipo marcado como @Primary.
+ */
+public interface EnviadorNotificaciones {
+
+    /**
+     * Envía una notificación. Puede tardar; no corre en el hilo de ninguna solicitud.
+     * @param notificacion la notificación a enviar
+     * @throws RuntimeException si no se pudo enviar; el despachador la reintentará
+     */
+    void enviar(Notificacion notificacion);
+}
@@ -0,0 +1,44 @@
+package cl.ipss.sabor_gourmet.service;
+
+import cl.ipss.sabor_gourmet.model.Notificacion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Enviador de reemplazo mientras no hay un proveedor de email o SMS: escribe cada
+ * notificación como una línea en un archivo, o en la consola si no se configura uno.
+ */
+@Component
+public class EnviadorRegistro implements EnviadorNotificaciones {
+
+    private final Path archivo;
+
+    public EnviadorRegistro(@Value("${sabor.notificaciones.archivo:}") String archivo) {
+        this.archivo = archivo.isBlank() ? null : Path.of(archivo);
+    }
+
+    @Override
+    public void enviar(Notificacion notificacion) {
+        String linea = String.format("✉ %s #%d a %s (%s): %s", notificacion.getTipo(), notificacion.getId(),
+                notificacion.getEmail(), notificacion.getTelefono(), notificacion.getMensaje());
+        if (archivo == null) {
+            System.out.println(linea);
+            return;
+        }
+        try {
+            synchronized (this) {
+                Files.writeString(archivo, linea + System.lineSeparator(), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package cl.ipss.sabor_gourmet.service;
+
+import cl.ipss.sabor_gourmet.dto.EstadisticasDashboard;
+import cl.ipss.sabor_gourmet.event.MesaEvento;
+import cl.ipss.sabor_gourmet.event.ReservaEvento;
+import cl.ipss.sabor_gourmet.event.ReservasImportadasEvento;
+import cl.ipss.sabor_gourmet.repository.MesaRepository;
+import cl.ipss.sabor_gourmet.repository.ReservaRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Servicio que mantiene los contadores del panel administrativo.
+ * La foto se calcula con consultas COUNT la primera vez de cada día y después
+ * se ajusta con los eventos de reservas y mesas, así leerla no consulta la base de datos.
+ * Las escrituras se serializan con un ReentrantLock en vez de synchronized porque algunas
+ * consultan la base de datos, y así no fijan el hilo portador con hilos virtuales.
+ * Quien guarda reservas toma el lado compartido de otro lock desde antes de confirmar hasta
+ * publicar el evento, y el recuento toma el lado exclusivo: así la foto nunca cuenta una reserva
+ * ya confirmada cuyo evento todavía no llegó, que después se sumaría por segunda vez.
+ */
+@Service
+public class EstadisticasService {
+
+    /** Espera máxima del recuento por las escrituras en curso; si vence, la foto no se guarda. */
+    private static final long ESPERA_RECUENTO_MS = 200;
+
+    private final MesaRepository mesaRepository;
+    private final ReservaRepository reservaRepository;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantReadWriteLock recuento = new ReentrantReadWriteLock();
+    private volatile EstadisticasDashboard actual;
+
+    public EstadisticasService(MesaRepository mesaRepository, ReservaRepository reservaRepository) {
+        this.mesaRepository = mesaRepository;
+        this.reservaRepository = reservaRepository;
+    }
+
+    /**
+     * Devuelve los contadores del día de hoy.
+     * @return foto de las estadísticas
+     */
+    public EstadisticasDashboard obtener() {
+        EstadisticasDashboard foto = actual;
+        LocalDate hoy = LocalDate.now();
+        if (foto != null && foto.getFecha().equals(hoy)) {
+            return foto;
+        }
+        return recalcular(hoy);
+    }
+
+    /**
+     * Reservas activas de hoy según la foto ya calculada, sin consultar la base de datos ni
+     * esperar al recuento. Sirve para métricas que se leen seguido y no deben tener efectos.
+     * @return reservas activas de hoy, o NaN si aún no hay foto de hoy
+     */
+    public double reservasHoyEnCache() {
+        EstadisticasDashboard foto = actual;
+        if (foto == null || !foto.getFecha().equals(LocalDate.now())) {
+            return Double.NaN;
+        }
+        return foto.getReservasHoy();
+    }
+
+    /**
+     * Lock que deben tener tomado quienes guardan o borran reservas, desde antes de confirmar
+     * la transacción hasta publicar el evento. Varias escrituras lo comparten sin esperarse.
+     * @return el lado compartido del lock de recuento
+     */
+    public Lock bloqueoEscritura() {
+        return recuento.readLock();
+    }
+
+    private EstadisticasDashboard recalcular(LocalDate hoy) {
+        Lock exclusivo = recuento.writeLock();
+        boolean sinEscrituras = tomar(exclusivo);
+        lock.lock();
+        try {
+            EstadisticasDashboard foto = actual;
+            if (foto == null || !foto.getFecha().equals(hoy)) {
+                foto = new EstadisticasDashboard(hoy,
+                        mesaRepository.count(),
+                        mesaRepository.countByActivaTrue(),
+                        reservaRepository.countByFechaAndEstado(hoy, "ACTIVA"),
+                        reservaRepository.count());
+                // Con escrituras en curso el conteo pudo incluir una reserva cuyo evento aún no llega
+                if (sinEscrituras) {
+                    actual = foto;
+                }
+            }
+            return foto;
+        } finally {
+            lock.unlock();
+            if (sinEscrituras) {
+                exclusivo.unlock();
+            }
+        }
+    }
+
+    private static boolean tomar(Lock exclusivo) {
+        try {
+            return exclusivo.tryLock(ESPERA_RECUENTO_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Ajusta los contadores de reservas según el cambio recibido.
+     * Una actualización arbitraria descarta la foto para recalcularla en la próxima lectura.
+     * @param evento cambio en una reserva
+     */
+    @EventListener
+    public void alCambiarReserva(ReservaEvento evento) {
+        lock.lock();
+        try {
+            EstadisticasDashboard foto = actual;
+            if (foto == null) {
+                return;
+            }
+            boolean esDeHoy = evento.getFecha().equals(foto.getFecha());
+            long reservasHoy = foto.getReservasHoy();
+            long reservasTotal = foto.getReservasTotal();
+            switch (evento.getTipo()) {
+                case CREADA -> {
+                    reservasTotal++;
+                    if (esDeHoy) {
+                        reservasHoy++;
+                    }
+                }
+                case CANCELADA -> {
+                    if (esDeHoy && evento.isEstabaActiva()) {
+                        reservasHoy--;
+                    }
+                }
+                case ELIMINADA -> {
+                    reservasTotal--;
+                    if (esDeHoy && evento.isEstabaActiva()) {
+                        reservasHoy--;
+                    }
+                }
+                case ACTUALIZADA -> {
+                    actual = null;
+                    return;
+                }
+            }
+            actual = new EstadisticasDashboard(foto.getFecha(), foto.getTotalMesas(), foto.getMesasActivas(),
+                    reservasHoy, reservasTotal);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Suma las reservas de un lote importado: todas al total y las activas de hoy a las de hoy.
+     * @param evento resumen del lote importado
+     */
+    @EventListener
+    public void alImportarReservas(ReservasImportadasEvento evento) {
+        lock.lock();
+        try {
+            EstadisticasDashboard foto = actual;
+            if (foto == null) {
+                return;
+            }
+            actual = new EstadisticasDashboard(foto.getFecha(), foto.getTotalMesas(), foto.getMesasActivas(),
+                    foto.getReservasHoy() + evento.getActivasPorFecha().getOrDefault(foto.getFecha(), 0),
+                    foto.getReservasTotal() + evento.getImportadas());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Vuelve a contar las mesas cuando cambia el catálogo; son pocas filas y cambian rara vez.
+     * @param evento cambio en una mesa
+     */
+    @EventListener
+    public void alCambiarMesa(MesaEvento evento) {
+        lock.lock();
+        try {
+            EstadisticasDashboard foto = actual;
+            if (foto == null) {
+                return;
+            }
+            actual = new EstadisticasDashboard(foto.getFecha(),
+                    mesaRepository.count(),
+                    mesaRepository.countByActivaTrue(),
+                    foto.getReservasHoy(), foto.getReservasTotal());
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package cl.ipss.sabor_gourmet.service;
+
+import cl.ipss.sabor_gourmet.dto.FormatoArchivo;
+import cl.ipss.sabor_gourmet.dto.ReservaExportada;
+import cl.ipss.sabor_gourmet.repository.ReservaRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Servicio de exportación de reservas por rango de fechas a CSV o NDJSON.
+ * Las filas se leen con un cursor de solo avance y se escriben a la salida a medida que llegan,
+ * así la memoria usada no depende de cuántas reservas tenga el rango.
+ * Las columnas coinciden con las de la importación, por lo que un archivo exportado puede volver a importarse.
+ */
+@Service
+@Timed(value = "sabor.servicio", histogram = true)
+public class ExportacionService {
+
+    private static final String ENCABEZADO_CSV = "email,nombre,telefono,fecha,hora,personas,mesa,estado,duracion,id";
+    private static final int TAMANO_BUFFER = 64 * 1024;
+
+    private final ReservaRepository reservaRepository;
+    private final ObjectWriter escritorNdjson;
+
+    public ExportacionService(ReservaRepository reservaRepository, ObjectMapper objectMapper) {
+        this.reservaRepository = reservaRepository;
+        // Un objeto por línea, sin separador extra entre valores raíz y sin cerrar la respuesta al terminar
+        this.escritorNdjson = objectMapper.writer()
+                .withRootValueSeparator((String) null)
+                .without(StreamWriteFeature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Escribe las reservas de un rango de fechas, ordenadas por fecha, hora e id.
+     * La salida no se cierra; el llamador decide qué hacer con ella.
+     * @param desde primera fecha incluida
+     * @param hasta última fecha incluida
+     * @param formato formato de salida
+     * @param salida destino de los datos, en UTF-8
+     * @return cantidad de reservas escritas
+     * @throws IOException si no se puede escribir en la salida
+     */
+    @Transactional(readOnly = true)
+    public long exportar(LocalDate desde, LocalDate hasta, FormatoArchivo formato, OutputStream salida)
+            throws IOException {
+        try (Stream<ReservaExportada> reservas = reservaRepository.streamPorRangoDeFechas(desde, hasta)) {
+            return formato == FormatoArchivo.CSV
+                    ? escribirCsv(reservas.iterator(), salida)
+                    : escribirNdjson(reservas.iterator(), salida);
+        }
+    }
+
+    private static long escribirCsv(Iterator<ReservaExportada> reservas, OutputStream salida) throws IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), TAMANO_BUFFER);
+        escritor.write(ENCABEZADO_CSV);
+        escritor.write('\n');
+        long filas = 0;
+        while (reservas.hasNext()) {
+            ReservaExportada reserva = reservas.next();
+            escribirCelda(escritor, reserva.getEmail());
+            escritor.write(',');
+            escribirCelda(escritor, reserva.getNombre());
+            escritor.write(',');
+            escribirCelda(escritor, reserva.getTelefono());
+            escritor.write(',');
+            escritor.write(reserva.getFecha().toString());
+            escritor.write(',');
+            escritor.write(reserva.getHora().toString());
+            escritor.write(',');
+            escritor.write(String.valueOf(reserva.getNumeroPersonas()));
+            escritor.write(',');
+            escritor.write(String.valueOf(reserva.getMesa()));
+            escritor.write(',');
+            escritor.write(reserva.getEstado());
+            escritor.write(',');
+            escritor.write(String.valueOf(reserva.getDuracionMinutos()));
+            escritor.write(',');
+            escritor.write(String.valueOf(reserva.getId()));
+            escritor.write('\n');
+            filas++;
+        }
+        escritor.flush();
+        return filas;
+    }
+
+    private long escribirNdjson(Iterator<ReservaExportada> reservas, OutputStream salida) {
+        long filas = 0;
+        try (JsonGenerator json = escritorNdjson.createGenerator(salida)) {
+            while (reservas.hasNext()) {
+                ReservaExportada reserva = reservas.next();
+                json.writeStartObject();
+                json.writeStringProperty("email", reserva.getEmail());
+                json.writeStringProperty("nombre", reserva.getNombre());
+                json.writeStringProperty("telefono", reserva.getTelefono());
+                json.writeStringProperty("fecha", reserva.getFecha().toString());
+                json.writeStringProperty("hora", reserva.getHora().toString());
+                json.writeNumberProperty("personas", reserva.getNumeroPersonas());
+                json.writeNumberProperty("mesa", reserva.getMesa());
+                json.writeStringProperty("estado", reserva.getEstado());
+                json.writeNumberProperty("duracion", reserva.getDuracionMinutos());
+                json.writeNumberProperty("id", reserva.getId());
+                json.writeEndObject();
+                json.writeRaw('\n');
+                filas++;
+            }
+        }
+        return filas;
+    }
+
+    /**
+     * Escribe un valor CSV, entre comillas dobles si contiene separadores, comillas o saltos de línea.
+     */
+    private static void escribirCelda(Writer escritor, String valor) throws IOException {
+        if (valor == null) {
+            return;
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            escritor.write(valor);
+            return;
+        }
+        escritor.write('"');
+        escritor.write(valor.replace("\"", "\"\""));
+        escritor.write('"');
+    }
+}
@@ -0,0 +1,493 @@
+package cl.ipss.sabor_gourmet.service;
+
+import cl.ipss.sabor_gourmet.dto.FormatoArchivo;
+import cl.ipss.sabor_gourmet.dto.ResultadoImportacion;
+import cl.ipss.sabor_gourmet.event.ReservasImportadasEvento;
+import cl.ipss.sabor_gourmet.model.Cliente;
+import cl.ipss.sabor_gourmet.model.Mesa;
+import cl.ipss.sabor_gourmet.model.Reserva;
+import cl.ipss.sabor_gourmet.repository.ClienteRepository;
+import cl.ipss.sabor_gourmet.repository.ReservaRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+
+/**
+ * Servicio de importación masiva de reservas desde CSV o NDJSON.
+ * El archivo se lee en streaming y se procesa por lotes: los clientes de cada lote se
+ * resuelven con una sola consulta por email, la disponibilidad se valida contra el índice
+ * de ocupación bajo los locks de los días de mesa del lote, y las reservas se insertan con
+ * lotes JDBC en una transacción por lote.
+ * Si un lote choca con una reserva o un cliente registrados en paralelo, se reintenta
+ * fila por fila para informar exactamente cuáles quedaron fuera.
+ */
+@Service
+@Timed(value = "sabor.servicio", histogram = true)
+public class ImportacionService {
+
+    /** Columnas reconocidas; sin encabezado, el CSV se lee en este orden. La duración es opcional. */
+    private static final List<String> COLUMNAS =
+            List.of("email", "nombre", "telefono", "fecha", "hora", "personas", "mesa", "estado", "duracion");
+
+    /**
+     * Emails por consulta IN. Una lista de parámetros larga se vuelve a traducir en cada
+     * ejecución y H2 la recorre entera por cada fila, así que se parte en consultas cortas.
+     */
+    private static final int EMAILS_POR_CONSULTA = 100;
+
+    /** Clientes recordados durante una importación, para no volver a buscar los emails repetidos. */
+    private static final int MAXIMO_CLIENTES_RECORDADOS = 200_000;
+
+    private final ClienteRepository clienteRepository;
+    private final ReservaRepository reservaRepository;
+    private final MesaService mesaService;
+    private final IndiceOcupacion indiceOcupacion;
+    private final BloqueosReserva bloqueosReserva;
+    private final PoliticaDuracion politicaDuracion;
+    private final TransactionTemplate transactionTemplate;
+    private final VersionesDatos versionesDatos;
+    private final EstadisticasService estadisticasService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final int tamanoLote;
+
+    public ImportacionService(ClienteRepository clienteRepository, ReservaRepository reservaRepository,
+                              MesaService mesaService, IndiceOcupacion indiceOcupacion,
+                              BloqueosReserva bloqueosReserva, PoliticaDuracion politicaDuracion, TransactionTemplate transactionTemplate,
+                              VersionesDatos versionesDatos, EstadisticasService estadisticasService,
+                              ApplicationEventPublisher eventPublisher,
+                              ObjectMapper objectMapper,
+                              @Value("${sabor.importacion.tamano-lote:1000}") int tamanoLote) {
+        this.clienteRepository = clienteRepository;
+        this.reservaRepository = reservaRepository;
+        this.mesaService = mesaService;
+        this.indiceOcupacion = indiceOcupacion;
+        this.bloqueosReserva = bloqueosReserva;
+        this.politicaDuracion = politicaDuracion;
+        this.transactionTemplate = transactionTemplate;
+        this.versionesDatos = versionesDatos;
+        this.estadisticasService = estadisticasService;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.tamanoLote = tamanoLote;
+    }
+
+    /**
+     * Importa reservas leyendo la entrada línea a línea.
+     * En CSV la primera línea puede ser un encabezado con los nombres de columna;
+     * en NDJSON cada línea es un objeto con esas mismas claves.
+     * @param entrada contenido del archivo en UTF-8
+     * @param formato formato del contenido
+     * @return informe con las filas importadas y las rechazadas
+     * @throws IOException si no se puede leer la entrada
+     */
+    public ResultadoImportacion importar(InputStream entrada, FormatoArchivo formato) throws IOException {
+        long inicio = System.nanoTime();
+        ResultadoImportacion resultado = new ResultadoImportacion();
+        Map<Integer, Mesa> mesas = new HashMap<>();
+        for (Mesa mesa : mesaService.listarTodas()) {
+            mesas.put(mesa.getNumero(), mesa);
+        }
+
+        BufferedReader lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        Map<String, Integer> columnas = null;
+        List<FilaImportacion> lote = new ArrayList<>(tamanoLote);
+        Map<String, Cliente> clientes = new HashMap<>();
+        long numeroLinea = 0;
+        String linea;
+        while ((linea = lector.readLine()) != null) {
+            numeroLinea++;
+            if (linea.isBlank()) {
+                continue;
+            }
+            if (formato == FormatoArchivo.CSV && columnas == null) {
+                columnas = leerEncabezado(linea);
+                if (columnas != null) {
+                    continue;
+                }
+                columnas = columnasPorDefecto();
+            }
+            resultado.contarFila();
+            try {
+                Function<String, String> valores = formato == FormatoArchivo.CSV
+                        ? valoresCsv(linea, columnas)
+                        : valoresJson(linea);
+                lote.add(crearFila(numeroLinea, valores, mesas));
+            } catch (IllegalArgumentException e) {
+                resultado.rechazar(numeroLinea, e.getMessage());
+            } catch (JacksonException e) {
+                resultado.rechazar(numeroLinea, "La línea no es un objeto JSON válido");
+            }
+            if (lote.size() == tamanoLote) {
+                procesarLote(lote, clientes, resultado);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            procesarLote(lote, clientes, resultado);
+        }
+        resultado.setMilisegundos((System.nanoTime() - inicio) / 1_000_000);
+        return resultado;
+    }
+
+    /**
+     * Valida, guarda y publica un lote.
+     * La disponibilidad se comprueba y las reservas activas se guardan con los locks de sus
+     * días de mesa tomados, los mismos que usa ReservaService.crear, y se sueltan recién después
+     * de ocupar el índice; así una reserva en línea no puede colarse entre la comprobación y el guardado.
+     * @param clientes clientes ya conocidos en esta importación, por email; se completa con los del lote
+     */
+    private void procesarLote(List<FilaImportacion> lote, Map<String, Cliente> clientes,
+                              ResultadoImportacion resultado) {
+        // Clientes que aún no se conocen, buscados de una vez; los nuevos necesitan al menos un nombre
+        if (clientes.size() > MAXIMO_CLIENTES_RECORDADOS) {
+            clientes.clear();
+        }
+        List<FilaImportacion> sinCliente = new ArrayList<>();
+        for (FilaImportacion fila : lote) {
+            if (!clientes.containsKey(fila.email)) {
+                sinCliente.add(fila);
+            }
+        }
+        clientes.putAll(buscarClientes(sinCliente));
+        List<FilaImportacion> conCliente = new ArrayList<>(lote.size());
+        List<FilaImportacion> activas = new ArrayList<>(lote.size());
+        for (FilaImportacion fila : lote) {
+            if (!clientes.containsKey(fila.email) && fila.nombre == null) {
+                resultado.rechazar(fila.linea, "El cliente " + fila.email + " no existe y la fila no trae nombre");
+                continue;
+            }
+            conCliente.add(fila);
+            if (fila.activa) {
+                activas.add(fila);
+            }
+        }
+        if (conCliente.isEmpty()) {
+            return;
+        }
+
+        List<Lock> bloqueos = bloqueosReserva.bloqueosPara(activas, fila -> fila.mesa.getId(), fila -> fila.fecha);
+        Lock escritura = estadisticasService.bloqueoEscritura();
+        bloqueos.forEach(Lock::lock);
+        escritura.lock();
+        try {
+            List<Reserva> guardadas = validarYGuardar(conCliente, clientes, resultado);
+            if (!guardadas.isEmpty()) {
+                publicar(guardadas);
+            }
+        } finally {
+            escritura.unlock();
+            for (int i = bloqueos.size() - 1; i >= 0; i--) {
+                bloqueos.get(i).unlock();
+            }
+        }
+    }
+
+    /**
+     * Descarta las filas activas que chocan con el índice o con otra fila del lote, guarda las
+     * demás y ocupa el índice con las activas guardadas. Debe llamarse con los locks del lote tomados.
+     * @return las reservas guardadas
+     */
+    private List<Reserva> validarYGuardar(List<FilaImportacion> filas, Map<String, Cliente> clientes,
+                                          ResultadoImportacion resultado) {
+        // Disponibilidad contra el índice en memoria y contra las filas anteriores del mismo lote
+        Map<List<Object>, IntervalosOcupados> ocupadosDelLote = new HashMap<>();
+        List<FilaImportacion> validas = new ArrayList<>(filas.size());
+        for (FilaImportacion fila : filas) {
+            if (fila.activa) {
+                int inicio = IntervalosOcupados.minuto(fila.hora);
+                int fin = IntervalosOcupados.fin(inicio, fila.duracion);
+                IntervalosOcupados delLote = ocupadosDelLote.computeIfAbsent(
+                        List.of(fila.mesa.getId(), fila.fecha), clave -> new IntervalosOcupados());
+                if (indiceOcupacion.estaOcupada(fila.mesa.getId(), fila.fecha, fila.hora, fila.duracion)
+                        || delLote.seSolapa(inicio, fin)) {
+                    resultado.rechazar(fila.linea, "La mesa " + fila.mesa.getNumero() + " ya está reservada el "
+                            + fila.fecha + " entre las " + fila.hora + " y las " + fila.hora.plusMinutes(fila.duracion));
+                    continue;
+                }
+                delLote.agregar(inicio, fin);
+            }
+            validas.add(fila);
+        }
+        if (validas.isEmpty()) {
+            return List.of();
+        }
+
+        List<Reserva> guardadas;
+        int clientesNuevos;
+        try {
+            Map<String, Cliente> nuevos = new LinkedHashMap<>();
+            guardadas = transactionTemplate.execute(status -> guardarLote(validas, clientes, nuevos));
+            clientesNuevos = nuevos.size();
+            clientes.putAll(nuevos);
+        } catch (DataIntegrityViolationException e) {
+            // Alguien registró el mismo email mientras tanto, o una reserva llegó a la base de datos
+            // por un camino que no pasa por el índice
+            guardadas = new ArrayList<>();
+            clientesNuevos = 0;
+            for (FilaImportacion fila : validas) {
+                try {
+                    Map<String, Cliente> nuevos = new LinkedHashMap<>();
+                    List<Reserva> guardada = transactionTemplate.execute(
+                            status -> guardarLote(List.of(fila), buscarClientes(List.of(fila)), nuevos));
+                    guardadas.addAll(guardada);
+                    clientesNuevos += nuevos.size();
+                } catch (DataIntegrityViolationException conflicto) {
+                    resultado.rechazar(fila.linea, "Conflicto con una reserva o cliente registrado en paralelo");
+                    if (fila.activa) {
+                        indiceOcupacion.invalidar(fila.fecha);
+                    }
+                }
+            }
+        }
+
+        resultado.sumarImportadas(guardadas.size());
+        resultado.sumarClientesCreados(clientesNuevos);
+        for (Reserva reserva : guardadas) {
+            if ("ACTIVA".equals(reserva.getEstado())) {
+                indiceOcupacion.ocupar(reserva.getMesa().getId(), reserva.getFecha(), reserva.getHora(),
+                        reserva.getDuracionMinutos());
+            }
+        }
+        return guardadas;
+    }
+
+    /**
+     * Inserta los clientes que faltan y las reservas de las filas dentro de la transacción actual.
+     * Con ids de secuencia y hibernate.jdbc.batch_size, Hibernate agrupa los INSERT en lotes.
+     */
+    private List<Reserva> guardarLote(List<FilaImportacion> filas, Map<String, Cliente> conocidos,
+                                      Map<String, Cliente> nuevos) {
+        for (FilaImportacion fila : filas) {
+            if (!conocidos.containsKey(fila.email) && !nuevos.containsKey(fila.email)) {
+                nuevos.put(fila.email, new Cliente(fila.nombre, fila.email, fila.telefono));
+            }
+        }
+        clienteRepository.saveAll(nuevos.values());
+
+        List<Reserva> reservas = new ArrayList<>(filas.size());
+        for (FilaImportacion fila : filas) {
+            Cliente cliente = conocidos.containsKey(fila.email) ? conocidos.get(fila.email) : nuevos.get(fila.email);
+            Reserva reserva = new Reserva(fila.fecha, fila.hora, fila.personas, cliente, fila.mesa);
+            reserva.setDuracionMinutos(fila.duracion);
+            if (!fila.activa) {
+                reserva.setEstado("CANCELADA");
+            }
+            reservas.add(reserva);
+        }
+        return reservaRepository.saveAll(reservas);
+    }
+
+    private Map<String, Cliente> buscarClientes(List<FilaImportacion> filas) {
+        if (filas.isEmpty()) {
+            return Map.of();
+        }
+        Set<String> emails = new LinkedHashSet<>();
+        filas.forEach(fila -> emails.add(fila.email));
+        List<String> pendientes = new ArrayList<>(emails);
+        Map<String, Cliente> clientes = new HashMap<>();
+        for (int desde = 0; desde < pendientes.size(); desde += EMAILS_POR_CONSULTA) {
+            List<String> parte = pendientes.subList(desde, Math.min(desde + EMAILS_POR_CONSULTA, pendientes.size()));
+            for (Cliente cliente : clienteRepository.findByEmailIn(parte)) {
+                clientes.put(cliente.getEmail(), cliente);
+            }
+        }
+        return clientes;
+    }
+
+    /**
+     * Publica un solo evento con el resumen del lote y luego marca como cambiadas sus fechas.
+     */
+    private void publicar(List<Reserva> guardadas) {
+        Map<LocalDate, Integer> activasPorFecha = new HashMap<>();
+        Set<LocalDate> fechas = new HashSet<>();
+        for (Reserva reserva : guardadas) {
+            fechas.add(reserva.getFecha());
+            if ("ACTIVA".equals(reserva.getEstado())) {
+                activasPorFecha.merge(reserva.getFecha(), 1, Integer::sum);
+            }
+        }
+        eventPublisher.publishEvent(new ReservasImportadasEvento(guardadas.size(), activasPorFecha));
+        fechas.forEach(versionesDatos::reservasCambiaron);
+    }
+
+    private static Map<String, Integer> leerEncabezado(String linea) {
+        List<String> celdas = separarCsv(linea);
+        if (!COLUMNAS.contains(celdas.get(0).trim().toLowerCase(Locale.ROOT))) {
+            return null;
+        }
+        Map<String, Integer> columnas = new HashMap<>();
+        for (int i = 0; i < celdas.size(); i++) {
+            columnas.put(celdas.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        return columnas;
+    }
+
+    private static Map<String, Integer> columnasPorDefecto() {
+        Map<String, Integer> columnas = new HashMap<>();
+        for (int i = 0; i < COLUMNAS.size(); i++) {
+            columnas.put(COLUMNAS.get(i), i);
+        }
+        return columnas;
+    }
+
+    private static Function<String, String> valoresCsv(String linea, Map<String, Integer> columnas) {
+        List<String> celdas = separarCsv(linea);
+        return columna -> {
+            Integer indice = columnas.get(columna);
+            return indice != null && indice < celdas.size() ? celdas.get(indice) : null;
+        };
+    }
+
+    private Function<String, String> valoresJson(String linea) {
+        JsonNode nodo = objectMapper.readTree(linea);
+        if (!nodo.isObject()) {
+            throw new IllegalArgumentException("La línea no es un objeto JSON");
+        }
+        return columna -> nodo.path(columna).asString(null);
+    }
+
+    /**
+     * Separa una línea CSV por comas, respetando campos entre comillas dobles.
+     */
+    private static List<String> separarCsv(String linea) {
+        List<String> celdas = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (c == '"') {
+                if (entreComillas && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    actual.append('"');
+                    i++;
+                } else {
+                    entreComillas = !entreComillas;
+                }
+            } else if (c == ',' && !entreComillas) {
+                celdas.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        celdas.add(actual.toString());
+        return celdas;
+    }
+
+    private FilaImportacion crearFila(long linea, Function<String, String> valores, Map<Integer, Mesa> mesas) {
+        FilaImportacion fila = new FilaImportacion(linea);
+        fila.email = texto(valores, "email");
+        if (fila.email == null || !fila.email.contains("@")) {
+            throw new IllegalArgumentException("Email inválido");
+        }
+        fila.nombre = texto(valores, "nombre");
+        fila.telefono = texto(valores, "telefono");
+        try {
+            fila.fecha = LocalDate.parse(requerido(valores, "fecha"));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Fecha inválida, use AAAA-MM-DD");
+        }
+        try {
+            fila.hora = LocalTime.parse(requerido(valores, "hora"));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Hora inválida, use HH:mm");
+        }
+        fila.personas = entero(requerido(valores, "personas"), "personas");
+        if (fila.personas < 1) {
+            throw new IllegalArgumentException("Debe haber al menos una persona");
+        }
+        int numeroMesa = entero(requerido(valores, "mesa"), "mesa");
+        fila.mesa = mesas.get(numeroMesa);
+        if (fila.mesa == null) {
+            throw new IllegalArgumentException("La mesa " + numeroMesa + " no existe");
+        }
+        if (fila.mesa.getCapacidad() < fila.personas) {
+            throw new IllegalArgumentException("La mesa " + numeroMesa + " tiene capacidad para "
+                    + fila.mesa.getCapacidad() + " personas");
+        }
+        String estado = texto(valores, "estado");
+        if (estado != null && !"ACTIVA".equalsIgnoreCase(estado) && !"CANCELADA".equalsIgnoreCase(estado)) {
+            throw new IllegalArgumentException("Estado inválido: " + estado);
+        }
+        fila.activa = estado == null || "ACTIVA".equalsIgnoreCase(estado);
+        if (fila.activa && !Boolean.TRUE.equals(fila.mesa.getActiva())) {
+            throw new IllegalArgumentException("La mesa " + numeroMesa + " está inactiva");
+        }
+        String duracion = texto(valores, "duracion");
+        fila.duracion = duracion != null
+                ? entero(duracion, "duracion")
+                : politicaDuracion.duracionPara(fila.mesa, fila.personas);
+        if (fila.duracion < 1) {
+            throw new IllegalArgumentException("La duración debe ser de al menos un minuto");
+        }
+        return fila;
+    }
+
+    private static String texto(Function<String, String> valores, String columna) {
+        String valor = valores.apply(columna);
+        return valor == null || valor.isBlank() ? null : valor.trim();
+    }
+
+    private static String requerido(Function<String, String> valores, String columna) {
+        String valor = texto(valores, columna);
+        if (valor == null) {
+            throw new IllegalArgumentException("Falta el campo " + columna);
+        }
+        return valor;
+    }
+
+    private static int entero(String valor, String columna) {
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("El campo " + columna + " debe ser un número");
+        }
+    }
+
+    /**
+     * Fila ya validada, lista para insertarse.
+     */
+    private static final class FilaImportacion {
+
+        private final long linea;
+        private String email;
+        private String nombre;
+        private String telefono;
+        private LocalDate fecha;
+        private LocalTime hora;
+        private int personas;
+        private int duracion;
+        private Mesa mesa;
+        private boolean activa;
+
+        FilaImportacion(long linea) {
+            this.linea = linea;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package cl.ipss.sabor_gourmet.service;
+
+import cl.ipss.sabor_gourmet.dto.SlotOcupado;
+import cl.ipss.sabor_gourmet.repository.ReservaRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Índice en memoria de la ocupación de mesas por fecha.
+ * Para cada día guarda, por mesa, los intervalos [hora, hora + duración) de sus reservas activas
+ * ordenados por inicio, de modo que comprobar un solapamiento cuesta O(log n).
+ * Los intervalos se recortan a medianoche: una reserva no ocupa la mesa el día siguiente.
+ * Los días se cargan bajo demanda con una sola consulta y luego se mantienen
+ * al día desde ReservaService, de modo que consultar disponibilidad no toca la base de datos.
+ * La carga se hace bajo un ReentrantLock y no dentro de ConcurrentHashMap.computeIfAbsent,
+ * para no fijar el hilo portador mientras se espera a la base de datos con hilos virtuales.
+ * Como cualquier fecha que llegue en una solicitud carga su día, la cantidad de días en memoria
+ * está acotada: al superar el máximo se descartan primero los días pasados y después los usados
+ * hace más tiempo. Descartar un día es igual que invalidarlo, la próxima consulta lo vuelve a cargar.
+ */
+@Component
+public class IndiceOcupacion {
+
+    private static final int FRANJAS_CARGA = 16; // potencia de dos
+
+    private final ReservaRepository reservaRepository;
+    private final ConcurrentHashMap<LocalDate, OcupacionDia> dias = new ConcurrentHashMap<>();
+    private final ReentrantLock[] bloqueosCarga = new ReentrantLock[FRANJAS_CARGA];
+    private final int maximoDias;
+    /** Avanza con cada carga; cada día recuerda el valor con que se usó por última vez. */
+    private final AtomicLong reloj = new AtomicLong();
+    private final ReentrantLock recorte = new ReentrantLock();
+
+    public IndiceOcupacion(ReservaRepository reservaRepository,
+                           @Value("${sabor.ocupacion.dias.maximo:400}") int maximoDias) {
+        this.reservaRepository = reservaRepository;
+        this.maximoDias = Math.max(1, maximoDias);
+        for (int i = 0; i < FRANJAS_CARGA; i++) {
+            bloqueosCarga[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Indica si una reserva que empieza a una hora y dura unos minutos se solapa con
+     * alguna reserva activa de la mesa. Si el día aún no está en memoria se carga primero
+     * desde la base de datos.
+     * @param mesaId el ID de la mesa
+     * @param fecha la fecha a consultar
+     * @param hora la hora de inicio a consultar
+     * @param duracionMinutos duración de la reserva que se quiere hacer
+     * @return true si la mesa ya está ocupada en parte de ese intervalo
+     */
+    public boolean estaOcupada(Long mesaId, LocalDate fecha, LocalTime hora, int duracionMinutos) {
+        OcupacionDia dia = dias.get(fecha);
+        if (dia == null) {
+            dia = cargarSiFalta(fecha);
+        } else {
+            dia.usar(reloj.get());
+        }
+        int inicio = IntervalosOcupados.minuto(hora);
+        return dia.seSolapa(mesaId, inicio, IntervalosOcupados.fin(inicio, duracionMinutos));
+    }
+
+    /**
+     * Marca una mesa como ocupada durante una reserva. Si el día no está cargado no hace nada:
+     * la próxima carga ya leerá la reserva desde la base de datos.
+     * @param mesaId el ID de la mesa
+     * @param fecha la fecha de la reserva
+     * @param hora la hora de inicio de la reserva
+     * @param duracionMinutos duración de la reserva
+     */
+    public void ocupar(Long mesaId, LocalDate fecha, LocalTime hora, int duracionMinutos) {
+        int inicio = IntervalosOcupados.minuto(hora);
+        int fin = IntervalosOcupados.fin(inicio, duracionMinutos);
+        conDiaCargado(fecha, dia -> dia.ocupar(mesaId, inicio, fin));
+    }
+
+    /**
+     * Libera la ocupación de la reserva de una mesa que empieza a una hora.
+     * @param mesaId el ID de la mesa
+     * @param fecha la fecha de la reserva
+     * @param hora la hora de inicio de la reserva
+     */
+    public void liberar(Long mesaId, LocalDate fecha, LocalTime hora) {
+        int inicio = IntervalosOcupados.minuto(hora);
+        conDiaCargado(fecha, dia -> dia.liberar(mesaId, inicio));
+    }
+
+    /**
+     * Descarta un día del índice para que se vuelva a cargar en el próximo acceso.
+     * @param fecha la fecha a descartar
+     */
+    public void invalidar(LocalDate fecha) {
+        dias.remove(fecha);
+    }
+
+    /**
+     * Carga un día en el índice si aún no está, para que la primera consulta de
+     * disponibilidad de esa fecha no tenga que esperar a la base de datos.
+     * @param fecha la fecha a cargar
+     */
+    public void precargar(LocalDate fecha) {
+        if (!dias.containsKey(fecha)) {
+            cargarSiFalta(fecha);
+        }
+    }
+
+    private OcupacionDia cargarSiFalta(LocalDate fecha) {
+        ReentrantLock lock = bloqueoCarga(fecha);
+        OcupacionDia dia;
+        lock.lock();
+        try {
+            dia = dias.get(fecha);
+            if (dia == null) {
+                dia = cargar(fecha);
+                dia.usar(reloj.incrementAndGet());
+                dias.put(fecha, dia);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (dias.size() > maximoDias) {
+            recortar();
+        }
+        return dia;
+    }
+
+    /**
+     * Descarta días hasta volver al máximo: primero los anteriores a hoy y luego los
+     * usados hace más tiempo. Si otro hilo ya está recortando no hace nada.
+     */
+    private void recortar() {
+        if (!recorte.tryLock()) {
+            return;
+        }
+        try {
+            LocalDate hoy = LocalDate.now();
+            dias.keySet().removeIf(fecha -> fecha.isBefore(hoy));
+            int sobran = dias.size() - maximoDias;
+            if (sobran <= 0) {
+                return;
+            }
+            List<Map.Entry<LocalDate, OcupacionDia>> porUso = new ArrayList<>(dias.entrySet());
+            porUso.sort(Comparator.comparingLong(entrada -> entrada.getValue().usadoEn));
+            for (int i = 0; i < sobran && i < porUso.size(); i++) {
+                Map.Entry<LocalDate, OcupacionDia> entrada = porUso.get(i);
+                dias.remove(entrada.getKey(), entrada.getValue());
+            }
+        } finally {
+            recorte.unlock();
+        }
+    }
+
+    /**
+     * Aplica un cambio solo si el día ya está en memoria. Si hay una carga en curso
+     * espera a que termine, porque esa consulta pudo no ver la reserva recién guardada.
+     */
+    private void conDiaCargado(LocalDate fecha, Consumer<OcupacionDia> cambio) {
+        OcupacionDia dia = dias.get(fecha);
+        if (dia == null) {
+            ReentrantLock lock = bloqueoCarga(fecha);
+            lock.lock();
+            try {
+                dia = dias.get(fecha);
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (dia != null) {
+            cambio.accept(dia);
+        }
+    }
+
+    private ReentrantLock bloqueoCarga(LocalDate fecha) {
+        int h = fecha.hashCode();
+        return bloqueosCarga[(h ^ (h >>> 16)) & (FRANJAS_CARGA - 1)];
+    }
+
+    private OcupacionDia cargar(LocalDate fecha) {
+        OcupacionDia dia = new OcupacionDia();
+        for (SlotOcupado ocupado : reservaRepository.findSlotsByFechaAndEstado(fecha, "ACTIVA")) {
+            int inicio = IntervalosOcupados.minuto(ocupado.getHora());
+            dia.ocupar(ocupado.getMesaId(), inicio, IntervalosOcupados.fin(inicio, ocupado.getDuracionMinutos()));
+        }
+        return dia;
+    }
+
+    /**
+     * Ocupación de un día: los intervalos ocupados de cada mesa.
+     */
+    private static final class OcupacionDia {
+
+        private final ConcurrentHashMap<Long, IntervalosOcupados> mesas = new ConcurrentHashMap<>();
+        private volatile long usadoEn;
+
+        /** Solo escribe si el reloj avanzó, para que las lecturas de un día concurrido no compitan. */
+        void usar(long ahora) {
+            if (usadoEn != ahora) {
+                usadoEn = ahora;
+            }
+        }
+
+        boolean seSolapa(Long mesaId, int inicio, int fin) {
+            IntervalosOcupados intervalos = mesas.get(mesaId);
+            return intervalos != null && intervalos.seSolapa(inicio, fin);
+        }
+
+        void ocupar(Long mesaId, int inicio, int fin) {
+            mesas.computeIfAbsent(mesaId, id -> new IntervalosOcupados()).agregar(inicio, fin);
+        }
+
+        void liberar(Long mesaId, int inicio) {
+            IntervalosOcupados intervalos = mesas.get(mesaId);
+            if (intervalos != null) {
+                intervalos.quitar(inicio);
+            }
+        }
+    }
+}
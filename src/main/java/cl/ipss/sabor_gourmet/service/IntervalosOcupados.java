@@ -0,0 +1,51 @@
+package cl.ipss.sabor_gourmet.service;
+
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Intervalos ocupados de una mesa en un día, en minutos [inicio, fin), ordenados por inicio.
+ * Las reservas activas de una mesa nunca se solapan entre sí, porque así se validan antes
+ * de guardarlas; por eso basta mirar el intervalo que empieza justo antes y el que empieza
+ * justo después para saber si uno nuevo choca, en O(log n) y sin recorrer el día.
+ * Las lecturas no bloquean; quien agrega debe tener el lock de la mesa y el día.
+ */
+final class IntervalosOcupados {
+
+    private static final int MINUTOS_POR_DIA = 24 * 60;
+
+    private final ConcurrentSkipListMap<Integer, Integer> finPorInicio = new ConcurrentSkipListMap<>();
+
+    /**
+     * Convierte una hora en su minuto del día. Los segundos se ignoran,
+     * igual que en el formulario de reservas que solo envía HH:mm.
+     */
+    static int minuto(LocalTime hora) {
+        return hora.getHour() * 60 + hora.getMinute();
+    }
+
+    /**
+     * Minuto en que termina una reserva, recortado a medianoche: no ocupa la mesa el día siguiente.
+     */
+    static int fin(int inicio, int duracionMinutos) {
+        return Math.min(inicio + Math.max(duracionMinutos, 1), MINUTOS_POR_DIA);
+    }
+
+    boolean seSolapa(int inicio, int fin) {
+        Map.Entry<Integer, Integer> anterior = finPorInicio.floorEntry(inicio);
+        if (anterior != null && anterior.getValue() > inicio) {
+            return true;
+        }
+        Map.Entry<Integer, Integer> siguiente = finPorInicio.higherEntry(inicio);
+        return siguiente != null && siguiente.getKey() < fin;
+    }
+
+    void agregar(int inicio, int fin) {
+        finPorInicio.merge(inicio, fin, Math::max);
+    }
+
+    void quitar(int inicio) {
+        finPorInicio.remove(inicio);
+    }
+}
@@ -0,0 +1,106 @@
+package cl.ipss.sabor_gourmet.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Comparte una misma lectura entre solicitudes simultáneas: mientras una consulta por una clave
+ * está en curso, las demás esperan su resultado en vez de lanzar otra idéntica, y durante un TTL
+ * corto el resultado se sigue entregando sin volver a consultar.
+ * Cada lectura se asocia a la versión de los datos vigente al pedirla; una versión más nueva,
+ * que los servicios publican después de cada escritura, descarta el resultado anterior aunque
+ * no haya vencido. Con TTL cero solo se comparten las consultas en curso.
+ * El resultado es el mismo objeto para todos, así que debe ser inmutable.
+ * @param <K> clave de la lectura
+ * @param <V> resultado de la lectura
+ */
+final class LecturaCompartida<K, V> {
+
+    private static final int ENTRADAS_ANTES_DE_LIMPIAR = 64;
+
+    private final ConcurrentHashMap<K, Entrada<V>> entradas = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final Counter consultas;
+    private final Counter enCurso;
+    private final Counter recientes;
+
+    LecturaCompartida(String nombre, long ttlMs, MeterRegistry meterRegistry) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.consultas = meterRegistry.counter("sabor.lecturas.compartidas", "lectura", nombre, "resultado", "consulta");
+        this.enCurso = meterRegistry.counter("sabor.lecturas.compartidas", "lectura", nombre, "resultado", "en_curso");
+        this.recientes = meterRegistry.counter("sabor.lecturas.compartidas", "lectura", nombre, "resultado", "reciente");
+    }
+
+    /**
+     * Entrega el resultado de la lectura para una clave, compartiendo la consulta en curso
+     * o un resultado reciente de la misma versión o de una posterior.
+     * @param clave la clave de la lectura
+     * @param version versión de los datos leída antes de llamar
+     * @param lectura consulta a ejecutar si no hay nada que compartir
+     * @return el resultado de la lectura
+     */
+    V obtener(K clave, long version, Supplier<V> lectura) {
+        long ahora = System.nanoTime();
+        Entrada<V> nueva = new Entrada<>(version, ahora);
+        Entrada<V> vigente = entradas.compute(clave, (k, e) -> e != null && e.sirve(version, ahora, ttlNanos) ? e : nueva);
+        if (vigente != nueva) {
+            (vigente.resultado.isDone() ? recientes : enCurso).increment();
+            return esperar(vigente);
+        }
+
+        consultas.increment();
+        if (entradas.size() > ENTRADAS_ANTES_DE_LIMPIAR) {
+            entradas.values().removeIf(e -> e.vencida(ahora, ttlNanos));
+        }
+        try {
+            V valor = lectura.get();
+            nueva.resultado.complete(valor);
+            return valor;
+        } catch (RuntimeException | Error e) {
+            // Los que esperaban reciben el mismo error; el siguiente vuelve a intentar
+            nueva.resultado.completeExceptionally(e);
+            entradas.remove(clave, nueva);
+            throw e;
+        }
+    }
+
+    private static <V> V esperar(Entrada<V> entrada) {
+        try {
+            return entrada.resultado.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Entrada<V> {
+
+        private final long version;
+        private final long inicio;
+        private final CompletableFuture<V> resultado = new CompletableFuture<>();
+
+        Entrada(long version, long inicio) {
+            this.version = version;
+            this.inicio = inicio;
+        }
+
+        boolean sirve(long versionPedida, long ahora, long ttlNanos) {
+            if (version < versionPedida) {
+                return false;
+            }
+            return !resultado.isDone() || (!resultado.isCompletedExceptionally() && ahora - inicio <= ttlNanos);
+        }
+
+        boolean vencida(long ahora, long ttlNanos) {
+            return resultado.isDone() && ahora - inicio > ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package cl.ipss.sabor_gourmet.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limitador de tasa por clave con el algoritmo de cubeta de fichas en su forma GCRA:
+ * de cada clave solo se guarda el instante teórico en que su cubeta vuelve a estar llena,
+ * en un AtomicLong que se actualiza con compareAndSet, sin locks. El mapa concurrente
+ * reparte las claves en franjas, así que claves distintas no compiten entre sí.
+ * Permite ráfagas de hasta "rafaga" solicitudes y después una cada 60/porMinuto segundos.
+ * Una clave con la cubeta llena equivale a una clave ausente, por eso se puede borrar
+ * para acotar la memoria; como mucho eso regala una ficha a una solicitud simultánea.
+ */
+final class LimitadorTasa {
+
+    private static final long LIMPIEZA_CADA_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long intervaloNanos;
+    private final long toleranciaNanos;
+    private final int maximoClaves;
+    private final ConcurrentHashMap<String, AtomicLong> llenaEn = new ConcurrentHashMap<>();
+    private final AtomicLong ultimaLimpieza = new AtomicLong(System.nanoTime());
+
+    /**
+     * @param porMinuto solicitudes sostenidas por minuto; 0 desactiva el límite
+     * @param rafaga solicitudes seguidas que se aceptan con la cubeta llena
+     * @param maximoClaves claves a partir de las cuales se borran las que tienen la cubeta llena
+     */
+    LimitadorTasa(int porMinuto, int rafaga, int maximoClaves) {
+        this.intervaloNanos = porMinuto > 0 ? TimeUnit.MINUTES.toNanos(1) / porMinuto : 0;
+        this.toleranciaNanos = intervaloNanos * Math.max(0, rafaga - 1);
+        this.maximoClaves = maximoClaves;
+    }
+
+    /**
+     * Intenta tomar una ficha de la cubeta de una clave.
+     * @param clave la clave, por ejemplo una IP o un email
+     * @return 0 si se admite, o los nanosegundos que faltan para que haya una ficha
+     */
+    long intentar(String clave) {
+        if (intervaloNanos == 0) {
+            return 0;
+        }
+        long ahora = System.nanoTime();
+        AtomicLong llena = llenaEn.get(clave);
+        if (llena == null) {
+            limpiarSiHaceFalta(ahora);
+            llena = llenaEn.computeIfAbsent(clave, k -> new AtomicLong(ahora));
+        }
+        while (true) {
+            long actual = llena.get();
+            long desde = actual - ahora > 0 ? actual : ahora;
+            long espera = desde - ahora - toleranciaNanos;
+            if (espera > 0) {
+                return espera;
+            }
+            if (llena.compareAndSet(actual, desde + intervaloNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    private void limpiarSiHaceFalta(long ahora) {
+        long ultima = ultimaLimpieza.get();
+        if (llenaEn.size() < maximoClaves || ahora - ultima < LIMPIEZA_CADA_NANOS
+                || !ultimaLimpieza.compareAndSet(ultima, ahora)) {
+            return;
+        }
+        llenaEn.values().removeIf(llena -> llena.get() - ahora <= 0);
+    }
+}
@@ -0,0 +1,167 @@
+package cl.ipss.sabor_gourmet.service;
+
+import cl.ipss.sabor_gourmet.event.ReservaEvento;
+import cl.ipss.sabor_gourmet.model.Cliente;
+import cl.ipss.sabor_gourmet.model.Mesa;
+import cl.ipss.sabor_gourmet.model.Reserva;
+import cl.ipss.sabor_gourmet.model.SolicitudEspera;
+import cl.ipss.sabor_gourmet.repository.SolicitudEsperaRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Optional;
+
+/**
+ * Servicio de la lista de espera.
+ * Cuando una reserva activa se cancela o se elimina, el aviso se encola para la fecha de la
+ * reserva y la solicitud cuesta lo mismo sin importar cuántos grupos esperen. En segundo plano
+ * se busca al grupo que mejor aprovecha la mesa liberada y se le crea la reserva, con lo que
+ * recibe la confirmación como cualquier otra. Las liberaciones de una misma fecha se procesan
+ * de a una y en orden, así una solicitud nunca se asigna dos veces. Una mesa liberada para
+ * una hora que ya pasó no se promueve: nadie puede ocuparla y el aviso llegaría tarde.
+ */
+@Service
+@Timed(value = "sabor.servicio", histogram = true)
+public class ListaEsperaService {
+
+    private static final Logger log = LoggerFactory.getLogger(ListaEsperaService.class);
+
+    /** Candidatos que se prueban por liberación; los demás esperan la siguiente. */
+    private static final int MAXIMO_CANDIDATOS = 20;
+
+    private final SolicitudEsperaRepository solicitudEsperaRepository;
+    private final ReservaService reservaService;
+    private final MesaService mesaService;
+    private final int ventanaMinutos;
+    private final EjecutorPorClave promociones;
+
+    private final Counter promovidas;
+    private final Counter sinCandidato;
+    private final Counter pasadas;
+
+    public ListaEsperaService(SolicitudEsperaRepository solicitudEsperaRepository, ReservaService reservaService,
+                              MesaService mesaService, MeterRegistry meterRegistry,
+                              @Value("${sabor.espera.ventana-minutos:60}") int ventanaMinutos,
+                              @Value("${sabor.espera.carriles:2}") int carriles) {
+        this.solicitudEsperaRepository = solicitudEsperaRepository;
+        this.reservaService = reservaService;
+        this.mesaService = mesaService;
+        this.ventanaMinutos = ventanaMinutos;
+        this.promociones = new EjecutorPorClave("lista-espera", carriles);
+        this.promovidas = meterRegistry.counter("sabor.espera.liberaciones", "resultado", "promovida");
+        this.sinCandidato = meterRegistry.counter("sabor.espera.liberaciones", "resultado", "sin_candidato");
+        this.pasadas = meterRegistry.counter("sabor.espera.liberaciones", "resultado", "pasada");
+    }
+
+    /**
+     * Anota a un grupo en la lista de espera, aceptando empezar hasta la ventana configurada
+     * antes o después de la hora pedida, sin salir del mismo día. Si el cliente ya espera
+     * ese día se devuelve su solicitud existente; si dos solicitudes suyas llegan a la vez,
+     * la restricción única rechaza la segunda y se devuelve la que ganó.
+     * @param cliente el cliente que espera
+     * @param fecha el día
+     * @param hora la hora preferida
+     * @param numeroPersonas número de personas del grupo
+     * @return la solicitud en espera
+     */
+    public SolicitudEspera anotar(Cliente cliente, LocalDate fecha, LocalTime hora, int numeroPersonas) {
+        Optional<SolicitudEspera> existente = solicitudEsperaRepository
+                .findFirstByClienteIdAndFechaAndEstado(cliente.getId(), fecha, "ESPERANDO");
+        if (existente.isPresent()) {
+            return existente.get();
+        }
+        int minuto = hora.toSecondOfDay() / 60;
+        LocalTime desde = LocalTime.ofSecondOfDay(Math.max(0, minuto - ventanaMinutos) * 60L);
+        LocalTime hasta = LocalTime.ofSecondOfDay(Math.min(24 * 60 - 1, minuto + ventanaMinutos) * 60L);
+        try {
+            return solicitudEsperaRepository.save(new SolicitudEspera(fecha, desde, hasta, numeroPersonas, cliente));
+        } catch (DataIntegrityViolationException e) {
+            // Otra solicitud del mismo cliente y día se guardó primero: ya está confirmada, así que se lee
+            return solicitudEsperaRepository
+                    .findFirstByClienteIdAndFechaAndEstado(cliente.getId(), fecha, "ESPERANDO")
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    /**
+     * Encola la promoción cuando se libera una mesa. Corre dentro de la cancelación,
+     * así que solo encola. Si la hora liberada ya pasó no encola nada.
+     * @param evento el evento de la reserva
+     */
+    @EventListener
+    public void alLiberarseMesa(ReservaEvento evento) {
+        boolean libera = evento.getTipo() == ReservaEvento.Tipo.CANCELADA
+                || evento.getTipo() == ReservaEvento.Tipo.ELIMINADA;
+        if (!libera || !evento.isEstabaActiva()) {
+            return;
+        }
+        if (yaPaso(evento.getFecha(), evento.getHora())) {
+            pasadas.increment();
+        } else {
+            promociones.ejecutar(evento.getFecha(),
+                    () -> promover(evento.getFecha(), evento.getHora(), evento.getMesaId()));
+        }
+    }
+
+    /**
+     * Da la mesa liberada al mejor candidato que todavía quepa en ella. Si la reserva de un
+     * candidato no cabe (por ejemplo, porque su duración choca con la reserva siguiente),
+     * se prueba con el próximo. La hora se revisa de nuevo porque la promoción pudo esperar en la cola.
+     */
+    private void promover(LocalDate fecha, LocalTime hora, Long mesaId) {
+        if (yaPaso(fecha, hora)) {
+            pasadas.increment();
+            return;
+        }
+        try {
+            Mesa mesa = mesaService.buscarPorId(mesaId).orElse(null);
+            if (mesa == null || !Boolean.TRUE.equals(mesa.getActiva())) {
+                sinCandidato.increment();
+                return;
+            }
+            for (SolicitudEspera solicitud : solicitudEsperaRepository.findCandidatas(fecha, hora, mesa.getCapacidad(),
+                    Limit.of(MAXIMO_CANDIDATOS))) {
+                Optional<Reserva> creada = reservaService.crear(new Reserva(fecha, hora,
+                        solicitud.getNumeroPersonas(), solicitud.getCliente(), mesa));
+                if (creada.isPresent()) {
+                    if (solicitudEsperaRepository.marcarAsignada(solicitud.getId(), creada.get().getId()) == 0) {
+                        // La solicitud dejó de esperar mientras tanto: la reserva se deshace, y al
+                        // cancelarla la mesa vuelve a encolarse para el siguiente candidato
+                        log.warn("Lista de espera: la solicitud {} ya no esperaba, se cancela la reserva {}",
+                                solicitud.getId(), creada.get().getId());
+                        reservaService.cancelar(creada.get().getId());
+                        return;
+                    }
+                    promovidas.increment();
+                    log.info("Lista de espera: solicitud {} pasa a la reserva {} (mesa {}, {} {})",
+                            solicitud.getId(), creada.get().getId(), mesa.getNumero(), fecha, hora);
+                    return;
+                }
+            }
+            sinCandidato.increment();
+        } catch (RuntimeException e) {
+            log.warn("Lista de espera: no se pudo promover {} {} en la mesa {}", fecha, hora, mesaId, e);
+        }
+    }
+
+    private static boolean yaPaso(LocalDate fecha, LocalTime hora) {
+        return !LocalDateTime.of(fecha, hora).isAfter(LocalDateTime.now());
+    }
+
+    @PreDestroy
+    void detener() {
+        promociones.cerrar();
+    }
+}
@@ -1,23 +1,45 @@
 package cl.ipss.sabor_gourmet.service;
 
+import cl.ipss.sabor_gourmet.dto.EstadisticasCache;
+import cl.ipss.sabor_gourmet.event.MesaEvento;
 import cl.ipss.sabor_gourmet.model.Mesa;
 import cl.ipss.sabor_gourmet.repository.MesaRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Servicio para gestionar operaciones relacionadas con mesas.
  * Encapsula la lógica de negocio de mesas.
+ * Las lecturas se sirven desde una foto inmutable del catálogo que solo se
+ * reconstruye después de crear, actualizar, cambiar de estado o eliminar una mesa.
  */
 @Service
+@Timed(value = "sabor.servicio", histogram = true)
 public class MesaService {
 
     private final MesaRepository mesaRepository;
+    private final VersionesDatos versionesDatos;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public MesaService(MesaRepository mesaRepository) {
+    private final AtomicLong versionCatalogo = new AtomicLong();
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private volatile CatalogoMesas catalogo;
+
+    public MesaService(MesaRepository mesaRepository, VersionesDatos versionesDatos,
+                       ApplicationEventPublisher eventPublisher) {
         this.mesaRepository = mesaRepository;
+        this.versionesDatos = versionesDatos;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -25,7 +47,7 @@ public class MesaService {
      * @return lista de todas las mesas
      */
     public List<Mesa> listarTodas() {
-        return mesaRepository.findAll();
+        return catalogo().todas;
     }
 
     /**
@@ -33,7 +55,16 @@ public class MesaService {
      * @return lista de mesas activas
      */
     public List<Mesa> listarActivas() {
-        return mesaRepository.findByActivaTrue();
+        return catalogo().activas;
+    }
+
+    /**
+     * Lista las mesas activas de menor a mayor capacidad y, a igual capacidad, por número.
+     * Es el orden en que se prueban al asignar una mesa automáticamente.
+     * @return lista de mesas activas ordenada por capacidad
+     */
+    public List<Mesa> listarActivasPorCapacidad() {
+        return catalogo().activasPorCapacidad;
     }
 
     /**
@@ -42,7 +73,7 @@ public class MesaService {
      * @return Optional con la mesa si existe
      */
     public Optional<Mesa> buscarPorId(Long id) {
-        return mesaRepository.findById(id);
+        return Optional.ofNullable(catalogo().porId.get(id));
     }
 
     /**
@@ -51,7 +82,7 @@ public class MesaService {
      * @return Mesa con ese número
      */
     public Mesa buscarPorNumero(Integer numero) {
-        return mesaRepository.findByNumero(numero);
+        return catalogo().porNumero.get(numero);
     }
 
     /**
@@ -60,7 +91,14 @@ public class MesaService {
      * @return la mesa creada
      */
     public Mesa crear(Mesa mesa) {
-        return mesaRepository.save(mesa);
+        Mesa creada;
+        try {
+            creada = mesaRepository.save(mesa);
+        } finally {
+            invalidarCatalogo();
+        }
+        publicar(MesaEvento.Tipo.CREADA, creada.getId());
+        return creada;
     }
 
     /**
@@ -69,7 +107,14 @@ public class MesaService {
      * @return la mesa actualizada
      */
     public Mesa actualizar(Mesa mesa) {
-        return mesaRepository.save(mesa);
+        Mesa actualizada;
+        try {
+            actualizada = mesaRepository.save(mesa);
+        } finally {
+            invalidarCatalogo();
+        }
+        publicar(MesaEvento.Tipo.ACTUALIZADA, actualizada.getId());
+        return actualizada;
     }
 
     /**
@@ -80,7 +125,12 @@ public class MesaService {
     public void cambiarEstado(Long id, Boolean activa) {
         mesaRepository.findById(id).ifPresent(mesa -> {
             mesa.setActiva(activa);
-            mesaRepository.save(mesa);
+            try {
+                mesaRepository.save(mesa);
+            } finally {
+                invalidarCatalogo();
+            }
+            publicar(MesaEvento.Tipo.ESTADO_CAMBIADO, id);
         });
     }
 
@@ -89,6 +139,76 @@ public class MesaService {
      * @param id el ID de la mesa a eliminar
      */
     public void eliminar(Long id) {
-        mesaRepository.deleteById(id);
+        try {
+            mesaRepository.deleteById(id);
+        } finally {
+            invalidarCatalogo();
+        }
+        publicar(MesaEvento.Tipo.ELIMINADA, id);
+    }
+
+    /**
+     * Entrega los aciertos y fallos acumulados de la caché del catálogo.
+     * @return estadísticas de la caché
+     */
+    public EstadisticasCache estadisticasCache() {
+        return new EstadisticasCache(aciertos.sum(), fallos.sum());
+    }
+
+    private CatalogoMesas catalogo() {
+        CatalogoMesas actual = catalogo;
+        if (actual != null) {
+            aciertos.increment();
+            return actual;
+        }
+        fallos.increment();
+        long version = versionCatalogo.get();
+        CatalogoMesas nuevo = new CatalogoMesas(mesaRepository.findAll());
+        synchronized (this) {
+            // Si hubo una escritura mientras se leía, esta foto puede estar vieja: no se publica
+            if (versionCatalogo.get() == version) {
+                catalogo = nuevo;
+            }
+        }
+        return nuevo;
+    }
+
+    private synchronized void invalidarCatalogo() {
+        versionCatalogo.incrementAndGet();
+        catalogo = null;
+    }
+
+    private void publicar(MesaEvento.Tipo tipo, Long id) {
+        eventPublisher.publishEvent(new MesaEvento(tipo, id));
+        versionesDatos.mesasCambiaron();
+    }
+
+    /**
+     * Foto inmutable del catálogo de mesas. Las entidades que contiene se comparten
+     * entre solicitudes y no deben modificarse.
+     */
+    private static final class CatalogoMesas {
+
+        private final List<Mesa> todas;
+        private final List<Mesa> activas;
+        private final List<Mesa> activasPorCapacidad;
+        private final Map<Long, Mesa> porId;
+        private final Map<Integer, Mesa> porNumero;
+
+        CatalogoMesas(List<Mesa> mesas) {
+            this.todas = List.copyOf(mesas);
+            this.activas = mesas.stream().filter(m -> Boolean.TRUE.equals(m.getActiva())).toList();
+            this.activasPorCapacidad = activas.stream()
+                    .sorted(Comparator.comparing(Mesa::getCapacidad).thenComparing(Mesa::getNumero))
+                    .toList();
+            Map<Long, Mesa> ids = new HashMap<>();
+            Map<Integer, Mesa> numeros = new HashMap<>();
+            for (Mesa mesa : mesas) {
+                ids.put(mesa.getId(), mesa);
+                numeros.put(mesa.getNumero(), mesa);
+            }
+            this.porId = Map.copyOf(ids);
+            this.porNumero = Map.copyOf(numeros);
+        }
     }
 }
@@ -0,0 +1,49 @@
+package cl.ipss.sabor_gourmet.service;
+
+import cl.ipss.sabor_gourmet.model.Mesa;
+import cl.ipss.sabor_gourmet.model.Reserva;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Decide cuánto tiempo ocupa una reserva su mesa.
+ * Una mesa puede fijar su propia duración; si no, se usa la del tramo según el tamaño del grupo,
+ * configurado como pares personas:minutos (por ejemplo "2:90,6:120,20:150" da 90 minutos
+ * hasta 2 personas, 120 hasta 6 y 150 hasta 20). Los grupos mayores al último tramo usan ese tramo.
+ */
+@Component
+public class PoliticaDuracion {
+
+    private final NavigableMap<Integer, Integer> minutosPorPersonas = new TreeMap<>();
+
+    public PoliticaDuracion(@Value("${sabor.reservas.duracion.tramos:2:90,6:120,20:150}") String tramos) {
+        for (String tramo : tramos.split(",")) {
+            String[] partes = tramo.trim().split(":");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Tramo de duración inválido: " + tramo);
+            }
+            minutosPorPersonas.put(Integer.parseInt(partes[0].trim()), Integer.parseInt(partes[1].trim()));
+        }
+        if (minutosPorPersonas.isEmpty()) {
+            minutosPorPersonas.put(Integer.MAX_VALUE, Reserva.DURACION_POR_DEFECTO_MINUTOS);
+        }
+    }
+
+    /**
+     * Calcula la duración de una reserva en una mesa.
+     * @param mesa la mesa reservada
+     * @param numeroPersonas número de personas del grupo
+     * @return duración en minutos
+     */
+    public int duracionPara(Mesa mesa, int numeroPersonas) {
+        if (mesa.getDuracionMinutos() != null) {
+            return mesa.getDuracionMinutos();
+        }
+        Map.Entry<Integer, Integer> tramo = minutosPorPersonas.ceilingEntry(numeroPersonas);
+        return tramo != null ? tramo.getValue() : minutosPorPersonas.lastEntry().getValue();
+    }
+}
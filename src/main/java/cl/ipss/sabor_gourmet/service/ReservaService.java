@@ -1,26 +1,89 @@
 package cl.ipss.sabor_gourmet.service;
 
+import cl.ipss.sabor_gourmet.dto.ReservaFiltro;
+import cl.ipss.sabor_gourmet.dto.ReservaResumen;
+import cl.ipss.sabor_gourmet.event.ReservaEvento;
+import cl.ipss.sabor_gourmet.model.Cliente;
 import cl.ipss.sabor_gourmet.model.Mesa;
+import cl.ipss.sabor_gourmet.model.Notificacion;
 import cl.ipss.sabor_gourmet.model.Reserva;
+import cl.ipss.sabor_gourmet.repository.NotificacionRepository;
 import cl.ipss.sabor_gourmet.repository.ReservaRepository;
+import cl.ipss.sabor_gourmet.repository.ReservaSpecifications;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.locks.Lock;
 
 /**
  * Servicio para gestionar operaciones relacionadas con reservas.
  * Incluye lógica de negocio para validar disponibilidad y crear/cancelar reservas.
+ * Crear y cancelar dejan la notificación al cliente en el outbox dentro de la misma transacción;
+ * el envío lo hace DespachadorNotificaciones después, sin demorar la solicitud.
  */
 @Service
+@Timed(value = "sabor.servicio", histogram = true)
 public class ReservaService {
 
+    private static final int TAMANO_PAGINA_ADMIN = 20;
+    private static final int TAMANO_PAGINA_CLIENTE = 10;
+    private static final Sort ORDEN_RECIENTES = Sort.by(Sort.Direction.DESC, "fecha", "hora", "id");
+
     private final ReservaRepository reservaRepository;
+    private final NotificacionRepository notificacionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final IndiceOcupacion indiceOcupacion;
+    private final BloqueosReserva bloqueosReserva;
+    private final AsignadorMesas asignadorMesas;
+    private final PoliticaDuracion politicaDuracion;
+    private final VersionesDatos versionesDatos;
+    private final EstadisticasService estadisticasService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Counter disponibles;
+    private final Counter ocupadas;
+    private final Counter conflictosIndice;
+    private final Counter conflictosBaseDatos;
+    private final Counter capacidadRechazada;
+    private final Counter sinMesaAsignable;
+    private final LecturaCompartida<LocalDate, List<ReservaResumen>> activasPorFecha;
 
-    public ReservaService(ReservaRepository reservaRepository) {
+    public ReservaService(ReservaRepository reservaRepository, NotificacionRepository notificacionRepository,
+                          TransactionTemplate transactionTemplate, IndiceOcupacion indiceOcupacion,
+                          BloqueosReserva bloqueosReserva, AsignadorMesas asignadorMesas,
+                          PoliticaDuracion politicaDuracion, VersionesDatos versionesDatos,
+                          EstadisticasService estadisticasService, ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+                          @Value("${sabor.reservas.lectura-compartida.ttl-ms:2000}") long ttlLecturaCompartidaMs) {
         this.reservaRepository = reservaRepository;
+        this.notificacionRepository = notificacionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.indiceOcupacion = indiceOcupacion;
+        this.bloqueosReserva = bloqueosReserva;
+        this.asignadorMesas = asignadorMesas;
+        this.politicaDuracion = politicaDuracion;
+        this.versionesDatos = versionesDatos;
+        this.estadisticasService = estadisticasService;
+        this.eventPublisher = eventPublisher;
+        this.disponibles = meterRegistry.counter("sabor.reservas.disponibilidad", "resultado", "disponible");
+        this.ocupadas = meterRegistry.counter("sabor.reservas.disponibilidad", "resultado", "ocupada");
+        this.conflictosIndice = meterRegistry.counter("sabor.reservas.conflictos", "origen", "indice");
+        this.conflictosBaseDatos = meterRegistry.counter("sabor.reservas.conflictos", "origen", "base_datos");
+        this.capacidadRechazada = meterRegistry.counter("sabor.reservas.capacidad.rechazada");
+        this.sinMesaAsignable = meterRegistry.counter("sabor.reservas.asignacion.sin.mesa");
+        this.activasPorFecha = new LecturaCompartida<>("reservas_activas_por_fecha", ttlLecturaCompartidaMs, meterRegistry);
     }
 
     /**
@@ -36,17 +99,45 @@ public class ReservaService {
      * @param fecha la fecha de búsqueda
      * @return lista de reservas en esa fecha
      */
-    public List<Reserva> listarPorFecha(LocalDate fecha) {
-        return reservaRepository.findByFecha(fecha);
+    public List<ReservaResumen> listarPorFecha(LocalDate fecha) {
+        return reservaRepository.findResumenPorFecha(fecha);
     }
 
     /**
      * Lista reservas activas de una fecha específica.
+     * Las solicitudes simultáneas por la misma fecha comparten una sola consulta, y su resultado
+     * se reutiliza durante un TTL corto hasta que alguna escritura cambie las reservas de esa fecha.
      * @param fecha la fecha de búsqueda
-     * @return lista de reservas activas en esa fecha
+     * @return lista inmutable de reservas activas en esa fecha
      */
-    public List<Reserva> listarActivasPorFecha(LocalDate fecha) {
-        return reservaRepository.findByFechaAndEstado(fecha, "ACTIVA");
+    public List<ReservaResumen> listarActivasPorFecha(LocalDate fecha) {
+        return activasPorFecha.obtener(fecha, versionesDatos.reservas(fecha),
+                () -> List.copyOf(reservaRepository.findResumenPorFechaYEstado(fecha, "ACTIVA")));
+    }
+
+    /**
+     * Lista las reservas de un cliente por páginas, de la más reciente a la más antigua.
+     * Usa paginación por keyset sobre (fecha, hora, id), apoyada en el índice por cliente,
+     * por lo que el costo no depende de cuántas reservas haya en la tabla.
+     * @param clienteId el ID del cliente
+     * @param posicion posición de keyset desde la que continuar
+     * @return ventana con la página de reservas
+     */
+    public Window<ReservaResumen> listarPorCliente(Long clienteId, ScrollPosition posicion) {
+        return reservaRepository.findBy(ReservaSpecifications.delCliente(clienteId),
+                q -> q.as(ReservaResumen.class).sortBy(ORDEN_RECIENTES).limit(TAMANO_PAGINA_CLIENTE).scroll(posicion));
+    }
+
+    /**
+     * Lista reservas aplicando los filtros del panel administrativo, por páginas
+     * de la más reciente a la más antigua.
+     * @param filtro filtros de fecha, estado y mesa
+     * @param posicion posición de keyset desde la que continuar
+     * @return ventana con la página de reservas
+     */
+    public Window<ReservaResumen> listarFiltradas(ReservaFiltro filtro, ScrollPosition posicion) {
+        return reservaRepository.findBy(ReservaSpecifications.conFiltro(filtro),
+                q -> q.as(ReservaResumen.class).sortBy(ORDEN_RECIENTES).limit(TAMANO_PAGINA_ADMIN).scroll(posicion));
     }
 
     /**
@@ -59,18 +150,19 @@ public class ReservaService {
     }
 
     /**
-     * Valida si una mesa está disponible en una fecha y hora específica.
-     * Una mesa se considera no disponible si ya tiene una reserva ACTIVA en esa fecha y hora.
+     * Valida si una mesa está disponible en una fecha, desde una hora y durante unos minutos.
+     * Una mesa se considera no disponible si alguna reserva ACTIVA suya se solapa con ese intervalo.
+     * La consulta se resuelve contra el índice de ocupación en memoria.
      * @param mesa la mesa a validar
      * @param fecha la fecha de la reserva
-     * @param hora la hora de la reserva
+     * @param hora la hora de inicio de la reserva
+     * @param duracionMinutos duración de la reserva
      * @return true si la mesa está disponible, false en caso contrario
      */
-    public boolean mesaDisponible(Mesa mesa, LocalDate fecha, LocalTime hora) {
-        List<Reserva> reservasDelDia = reservaRepository.findByFechaAndEstado(fecha, "ACTIVA");
-        return reservasDelDia.stream()
-                .noneMatch(r -> r.getMesa().getId().equals(mesa.getId())
-                        && r.getHora().equals(hora));
+    public boolean mesaDisponible(Mesa mesa, LocalDate fecha, LocalTime hora, int duracionMinutos) {
+        boolean disponible = !indiceOcupacion.estaOcupada(mesa.getId(), fecha, hora, duracionMinutos);
+        (disponible ? disponibles : ocupadas).increment();
+        return disponible;
     }
 
     /**
@@ -85,15 +177,74 @@ public class ReservaService {
 
     /**
      * Crea una nueva reserva si la mesa está disponible y tiene capacidad.
+     * Si la reserva no trae duración se le asigna la de la política según mesa y tamaño del grupo.
+     * La comprobación y el guardado se hacen bajo el lock del día de la mesa (mesa, fecha),
+     * así dos solicitudes simultáneas no pueden tomar intervalos que se solapen. La restricción
+     * única de la tabla cubre cualquier escritura que llegue por otro camino a la misma hora.
      * @param reserva la reserva a crear
      * @return Optional con la reserva creada, o vacío si no es posible crearla
      */
     public Optional<Reserva> crear(Reserva reserva) {
-        if (mesaDisponible(reserva.getMesa(), reserva.getFecha(), reserva.getHora())
-                && mesaTieneCapacidad(reserva.getMesa(), reserva.getNumeroPersonas())) {
+        if (!mesaTieneCapacidad(reserva.getMesa(), reserva.getNumeroPersonas())) {
+            capacidadRechazada.increment();
+            return Optional.empty();
+        }
+        if (reserva.getDuracionMinutos() == null) {
+            reserva.setDuracionMinutos(politicaDuracion.duracionPara(reserva.getMesa(), reserva.getNumeroPersonas()));
+        }
+        Lock lock = bloqueosReserva.bloqueoPara(reserva.getMesa().getId(), reserva.getFecha());
+        Lock escritura = estadisticasService.bloqueoEscritura();
+        lock.lock();
+        escritura.lock();
+        try {
+            if (!mesaDisponible(reserva.getMesa(), reserva.getFecha(), reserva.getHora(),
+                    reserva.getDuracionMinutos())) {
+                conflictosIndice.increment();
+                return Optional.empty();
+            }
             reserva.setEstado("ACTIVA");
-            return Optional.of(reservaRepository.save(reserva));
+            Reserva guardada;
+            try {
+                guardada = transactionTemplate.execute(estado -> {
+                    Reserva nueva = reservaRepository.save(reserva);
+                    notificacionRepository.save(Notificacion.confirmacion(nueva));
+                    return nueva;
+                });
+            } catch (DataIntegrityViolationException e) {
+                // Otro camino ya ocupó el horario: la base de datos lo rechazó
+                conflictosBaseDatos.increment();
+                indiceOcupacion.invalidar(reserva.getFecha());
+                return Optional.empty();
+            }
+            indiceOcupacion.ocupar(guardada.getMesa().getId(), guardada.getFecha(), guardada.getHora(),
+                    guardada.getDuracionMinutos());
+            publicar(ReservaEvento.Tipo.CREADA, guardada, false);
+            return Optional.of(guardada);
+        } finally {
+            escritura.unlock();
+            lock.unlock();
         }
+    }
+
+    /**
+     * Crea una reserva eligiendo la mesa automáticamente: la más pequeña, activa y libre
+     * que tenga capacidad para el grupo. Si otra solicitud gana esa mesa entre la búsqueda
+     * y el guardado, se prueba la siguiente candidata.
+     * @param fecha la fecha de la reserva
+     * @param hora la hora de la reserva
+     * @param numeroPersonas número de personas del grupo
+     * @param cliente el cliente que reserva
+     * @return Optional con la reserva creada, o vacío si ninguna mesa sirve
+     */
+    public Optional<Reserva> crearConMesaAsignada(LocalDate fecha, LocalTime hora, Integer numeroPersonas,
+                                                  Cliente cliente) {
+        for (Mesa mesa : asignadorMesas.candidatas(fecha, hora, numeroPersonas)) {
+            Optional<Reserva> creada = crear(new Reserva(fecha, hora, numeroPersonas, cliente, mesa));
+            if (creada.isPresent()) {
+                return creada;
+            }
+        }
+        sinMesaAsignable.increment();
         return Optional.empty();
     }
 
@@ -103,25 +254,98 @@ public class ReservaService {
      * @return la reserva actualizada
      */
     public Reserva actualizar(Reserva reserva) {
-        return reservaRepository.save(reserva);
+        Optional<Reserva> anterior = reserva.getId() != null
+                ? reservaRepository.findById(reserva.getId())
+                : Optional.empty();
+        anterior.ifPresent(r -> indiceOcupacion.invalidar(r.getFecha()));
+        Lock escritura = estadisticasService.bloqueoEscritura();
+        escritura.lock();
+        try {
+            Reserva actualizada = reservaRepository.save(reserva);
+            indiceOcupacion.invalidar(actualizada.getFecha());
+            publicar(ReservaEvento.Tipo.ACTUALIZADA, actualizada,
+                    anterior.map(r -> "ACTIVA".equals(r.getEstado())).orElse(false));
+            return actualizada;
+        } finally {
+            escritura.unlock();
+        }
     }
 
     /**
      * Cancela una reserva por su ID.
+     * La reserva se vuelve a leer dentro del lock de su día de mesa y de la transacción, y el
+     * cambio de estado es condicional: de dos cancelaciones simultáneas solo una la encuentra
+     * activa, y solo esa deja el aviso, libera la mesa y publica el evento.
      * @param id el ID de la reserva a cancelar
      */
     public void cancelar(Long id) {
-        reservaRepository.findById(id).ifPresent(reserva -> {
-            reserva.setEstado("CANCELADA");
-            reservaRepository.save(reserva);
+        reservaRepository.findById(id).ifPresent(leida -> {
+            Lock lock = bloqueosReserva.bloqueoPara(leida.getMesa().getId(), leida.getFecha());
+            Lock escritura = estadisticasService.bloqueoEscritura();
+            lock.lock();
+            escritura.lock();
+            try {
+                Reserva cancelada = transactionTemplate.execute(estado -> {
+                    Reserva actual = reservaRepository.findById(id).orElse(null);
+                    if (actual == null || !"ACTIVA".equals(actual.getEstado())
+                            || reservaRepository.cancelarSiActiva(id) == 0) {
+                        return null;
+                    }
+                    notificacionRepository.save(Notificacion.cancelacion(actual));
+                    return actual;
+                });
+                if (cancelada != null) {
+                    cancelada.setEstado("CANCELADA");
+                    indiceOcupacion.liberar(cancelada.getMesa().getId(), cancelada.getFecha(), cancelada.getHora());
+                    publicar(ReservaEvento.Tipo.CANCELADA, cancelada, true);
+                }
+            } finally {
+                escritura.unlock();
+                lock.unlock();
+            }
         });
     }
 
     /**
      * Elimina una reserva.
+     * Igual que al cancelar, si estaba activa se decide con la reserva leída dentro del lock y
+     * de la transacción, y solo quien la eliminó de verdad libera la mesa y publica el evento.
      * @param id el ID de la reserva a eliminar
      */
     public void eliminar(Long id) {
-        reservaRepository.deleteById(id);
+        reservaRepository.findById(id).ifPresent(leida -> {
+            Lock lock = bloqueosReserva.bloqueoPara(leida.getMesa().getId(), leida.getFecha());
+            Lock escritura = estadisticasService.bloqueoEscritura();
+            lock.lock();
+            escritura.lock();
+            try {
+                Reserva eliminada = transactionTemplate.execute(estado -> {
+                    Reserva actual = reservaRepository.findById(id).orElse(null);
+                    return actual != null && reservaRepository.borrar(id) == 1 ? actual : null;
+                });
+                if (eliminada != null) {
+                    boolean estabaActiva = "ACTIVA".equals(eliminada.getEstado());
+                    if (estabaActiva) {
+                        indiceOcupacion.liberar(eliminada.getMesa().getId(), eliminada.getFecha(),
+                                eliminada.getHora());
+                    }
+                    publicar(ReservaEvento.Tipo.ELIMINADA, eliminada, estabaActiva);
+                }
+            } finally {
+                escritura.unlock();
+                lock.unlock();
+            }
+        });
+    }
+
+    private void publicar(ReservaEvento.Tipo tipo, Reserva reserva, boolean estabaActiva) {
+        eventPublisher.publishEvent(new ReservaEvento(tipo, reserva.getId(), reserva.getMesa().getId(),
+                reserva.getFecha(), reserva.getHora(), estabaActiva));
+        // Una actualización pudo mover la reserva desde otra fecha
+        if (tipo == ReservaEvento.Tipo.ACTUALIZADA) {
+            versionesDatos.reservasCambiaronEnTodasLasFechas();
+        } else {
+            versionesDatos.reservasCambiaron(reserva.getFecha());
+        }
     }
 }
@@ -0,0 +1,84 @@
+package cl.ipss.sabor_gourmet.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contadores de versión de los datos que muestran las vistas, para responder con ETag
+ * y 304 Not Modified sin consultar la base de datos ni renderizar la plantilla.
+ * Hay un contador para las mesas y otro por fecha para las reservas. Los servicios los
+ * incrementan después de publicar su evento, cuando las cachés en memoria ya están al día;
+ * así una vista que lee la versión antes que los datos nunca asocia datos viejos a una versión nueva.
+ * Las fechas se reparten en un número fijo de franjas: dos fechas de la misma franja comparten
+ * contador, lo que solo cuesta alguna respuesta completa de más, nunca un 304 indebido.
+ * Cada arranque usa un prefijo distinto, porque los contadores vuelven a cero al reiniciar.
+ */
+@Component
+public class VersionesDatos {
+
+    private static final int FRANJAS_FECHA = 1024; // potencia de dos
+
+    private final String arranque = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+    private final AtomicLong mesas = new AtomicLong();
+    private final AtomicLong todasLasFechas = new AtomicLong();
+    private final AtomicLongArray fechas = new AtomicLongArray(FRANJAS_FECHA);
+
+    /**
+     * @return versión actual de las mesas
+     */
+    public long mesas() {
+        return mesas.get();
+    }
+
+    /**
+     * @param fecha la fecha a consultar
+     * @return versión actual de las reservas de esa fecha
+     */
+    public long reservas(LocalDate fecha) {
+        return todasLasFechas.get() + fechas.get(franja(fecha));
+    }
+
+    /**
+     * Registra que cambió alguna mesa.
+     */
+    public void mesasCambiaron() {
+        mesas.incrementAndGet();
+    }
+
+    /**
+     * Registra que cambió alguna reserva de una fecha.
+     * @param fecha la fecha de la reserva
+     */
+    public void reservasCambiaron(LocalDate fecha) {
+        fechas.incrementAndGet(franja(fecha));
+    }
+
+    /**
+     * Registra un cambio que pudo afectar a cualquier fecha, como una reserva movida de día.
+     */
+    public void reservasCambiaronEnTodasLasFechas() {
+        todasLasFechas.incrementAndGet();
+    }
+
+    /**
+     * Arma el valor de un ETag con el prefijo de este arranque y las partes dadas.
+     * @param partes nombre de la vista y versiones de las que depende
+     * @return valor del ETag, sin comillas
+     */
+    public String etag(Object... partes) {
+        StringBuilder etag = new StringBuilder(arranque);
+        for (Object parte : partes) {
+            etag.append('-').append(parte);
+        }
+        return etag.toString();
+    }
+
+    private static int franja(LocalDate fecha) {
+        int h = fecha.hashCode();
+        return (h ^ (h >>> 16)) & (FRANJAS_FECHA - 1);
+    }
+}
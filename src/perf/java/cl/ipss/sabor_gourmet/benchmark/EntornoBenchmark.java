@@ -0,0 +1,126 @@
+package cl.ipss.sabor_gourmet.benchmark;
+
+import cl.ipss.sabor_gourmet.SaborGourmetApplication;
+import cl.ipss.sabor_gourmet.config.GeneradorDatos;
+import cl.ipss.sabor_gourmet.controller.AdminController;
+import cl.ipss.sabor_gourmet.controller.PublicController;
+import cl.ipss.sabor_gourmet.model.Cliente;
+import cl.ipss.sabor_gourmet.model.Mesa;
+import cl.ipss.sabor_gourmet.repository.ClienteRepository;
+import cl.ipss.sabor_gourmet.service.AsignadorMesas;
+import cl.ipss.sabor_gourmet.service.ClienteService;
+import cl.ipss.sabor_gourmet.service.IndiceOcupacion;
+import cl.ipss.sabor_gourmet.service.MesaService;
+import cl.ipss.sabor_gourmet.service.ReservaService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Estado compartido por los benchmarks: levanta la aplicación sin servidor web
+ * sobre una base H2 en memoria y la llena con el perfil "generador" de la aplicación.
+ * Los volúmenes se ajustan con -p mesas=..., -p clientes=..., -p reservas=...
+ */
+@State(Scope.Benchmark)
+public class EntornoBenchmark {
+
+    /** Horarios reservables: de 12:00 a 21:30 cada media hora. */
+    static final LocalTime[] HORAS = new LocalTime[20];
+
+    static {
+        for (int i = 0; i < HORAS.length; i++) {
+            HORAS[i] = LocalTime.of(12, 0).plusMinutes(30L * i);
+        }
+    }
+
+    @Param("40")
+    public int mesas;
+
+    @Param("100000")
+    public int clientes;
+
+    @Param("1000000")
+    public int reservas;
+
+    ConfigurableApplicationContext contexto;
+    ReservaService reservaService;
+    MesaService mesaService;
+    ClienteService clienteService;
+    IndiceOcupacion indiceOcupacion;
+    AsignadorMesas asignadorMesas;
+    PublicController publicController;
+    AdminController adminController;
+
+    List<Mesa> mesasActivas;
+    List<Cliente> muestraClientes;
+    LocalDate primerDia;
+    int dias;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(SaborGourmetApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("generador")
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--sabor.generador.mesas=" + mesas,
+                        "--sabor.generador.clientes=" + clientes,
+                        "--sabor.generador.reservas=" + reservas,
+                        "--logging.level.root=WARN");
+
+        LocalDate[] rango = contexto.getBean(JdbcTemplate.class).queryForObject(
+                "select min(fecha), max(fecha) from reservas",
+                (rs, n) -> new LocalDate[]{rs.getDate(1).toLocalDate(), rs.getDate(2).toLocalDate()});
+        primerDia = rango[0];
+        dias = (int) ChronoUnit.DAYS.between(rango[0], rango[1]) + 1;
+
+        reservaService = contexto.getBean(ReservaService.class);
+        mesaService = contexto.getBean(MesaService.class);
+        clienteService = contexto.getBean(ClienteService.class);
+        indiceOcupacion = contexto.getBean(IndiceOcupacion.class);
+        asignadorMesas = contexto.getBean(AsignadorMesas.class);
+        publicController = contexto.getBean(PublicController.class);
+        adminController = contexto.getBean(AdminController.class);
+
+        mesasActivas = mesaService.listarActivas();
+        muestraClientes = contexto.getBean(ClienteRepository.class).findAll(PageRequest.of(0, 1000)).getContent();
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        contexto.close();
+    }
+
+    Mesa mesaAlAzar() {
+        return mesasActivas.get(ThreadLocalRandom.current().nextInt(mesasActivas.size()));
+    }
+
+    Cliente clienteAlAzar() {
+        return muestraClientes.get(ThreadLocalRandom.current().nextInt(muestraClientes.size()));
+    }
+
+    LocalDate diaAlAzar() {
+        return primerDia.plusDays(ThreadLocalRandom.current().nextInt(dias));
+    }
+
+    LocalTime horaAlAzar() {
+        return HORAS[ThreadLocalRandom.current().nextInt(HORAS.length)];
+    }
+
+    String emailAlAzar() {
+        return GeneradorDatos.email(ThreadLocalRandom.current().nextInt(clientes));
+    }
+}
@@ -0,0 +1,70 @@
+package cl.ipss.sabor_gourmet.benchmark;
+
+import cl.ipss.sabor_gourmet.dto.CursorReserva;
+import cl.ipss.sabor_gourmet.dto.ReservaFiltro;
+import cl.ipss.sabor_gourmet.dto.ReservaResumen;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.ui.ExtendedModelMap;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de los listados y de los flujos de controlador que los usan.
+ * Los controladores se invocan directamente, sin renderizar plantillas.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx4g"})
+public class ListadosBenchmark {
+
+    @Benchmark
+    public List<ReservaResumen> reservasActivasDelDia(EntornoBenchmark entorno) {
+        return entorno.reservaService.listarActivasPorFecha(entorno.diaAlAzar());
+    }
+
+    @Benchmark
+    public Window<ReservaResumen> misReservasPrimeraPagina(EntornoBenchmark entorno) {
+        return entorno.reservaService.listarPorCliente(entorno.clienteAlAzar().getId(), ScrollPosition.keyset());
+    }
+
+    @Benchmark
+    public Window<ReservaResumen> adminReservasSemanaActivas(EntornoBenchmark entorno) {
+        ReservaFiltro filtro = new ReservaFiltro();
+        filtro.setFechaInicio(entorno.diaAlAzar());
+        filtro.setFechaFin(filtro.getFechaInicio().plusDays(7));
+        filtro.setEstado("ACTIVA");
+        return entorno.reservaService.listarFiltradas(filtro, ScrollPosition.keyset());
+    }
+
+    @Benchmark
+    public String controladorInicio(EntornoBenchmark entorno) {
+        // Sin If-None-Match: mide armar el modelo completo, no la respuesta 304
+        ServletWebRequest request = new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse());
+        return entorno.publicController.inicio(request, new ExtendedModelMap());
+    }
+
+    @Benchmark
+    public String controladorDashboard(EntornoBenchmark entorno) {
+        return entorno.adminController.dashboard(new ExtendedModelMap());
+    }
+
+    @Benchmark
+    public String controladorMisReservas(EntornoBenchmark entorno) {
+        return entorno.publicController.misCancelacionesReservas(entorno.emailAlAzar(), new CursorReserva(),
+                new ExtendedModelMap());
+    }
+}
@@ -0,0 +1,66 @@
+package cl.ipss.sabor_gourmet.benchmark;
+
+import cl.ipss.sabor_gourmet.model.Cliente;
+import cl.ipss.sabor_gourmet.model.Mesa;
+import cl.ipss.sabor_gourmet.model.Reserva;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de los caminos críticos de una reserva: consultar disponibilidad,
+ * asignar mesa, resolver el cliente por email y crear la reserva.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx4g"})
+public class ReservaServiceBenchmark {
+
+    /** Disponibilidad con el día ya cargado en el índice de ocupación. */
+    @Benchmark
+    public boolean mesaDisponible(EntornoBenchmark entorno) {
+        return entorno.reservaService.mesaDisponible(entorno.mesaAlAzar(), entorno.diaAlAzar(), entorno.horaAlAzar(),
+                Reserva.DURACION_POR_DEFECTO_MINUTOS);
+    }
+
+    /** Disponibilidad obligando a cargar el día desde la base de datos. */
+    @Benchmark
+    public boolean mesaDisponibleDiaSinCargar(EntornoBenchmark entorno) {
+        LocalDate dia = entorno.diaAlAzar();
+        entorno.indiceOcupacion.invalidar(dia);
+        return entorno.reservaService.mesaDisponible(entorno.mesaAlAzar(), dia, entorno.horaAlAzar(),
+                Reserva.DURACION_POR_DEFECTO_MINUTOS);
+    }
+
+    /** Búsqueda de la mejor mesa libre para un grupo, con el día ya cargado en el índice. */
+    @Benchmark
+    public List<Mesa> candidatasAsignacion(EntornoBenchmark entorno) {
+        return entorno.asignadorMesas.candidatas(entorno.diaAlAzar(), entorno.horaAlAzar(),
+                1 + ThreadLocalRandom.current().nextInt(8));
+    }
+
+    @Benchmark
+    public Optional<Cliente> buscarClientePorEmail(EntornoBenchmark entorno) {
+        return entorno.clienteService.buscarPorEmail(entorno.emailAlAzar());
+    }
+
+    /** Reserva sobre días futuros fuera del rango sembrado; a medida que se llenan aparecen rechazos. */
+    @Benchmark
+    public Optional<Reserva> crearReserva(EntornoBenchmark entorno) {
+        LocalDate fecha = entorno.primerDia.plusDays(entorno.dias + ThreadLocalRandom.current().nextInt(365));
+        Reserva reserva = new Reserva(fecha, entorno.horaAlAzar(), 2, entorno.clienteAlAzar(), entorno.mesaAlAzar());
+        return entorno.reservaService.crear(reserva);
+    }
+}
@@ -0,0 +1,83 @@
+package cl.ipss.sabor_gourmet.benchmark;
+
+import cl.ipss.sabor_gourmet.model.Mesa;
+import cl.ipss.sabor_gourmet.model.Reserva;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de reservas que compiten por los mismos horarios: un grupo de hilos intenta
+ * reservar una sola mesa en cuatro horarios de un mismo día mientras otros cancelan lo que
+ * se logró reservar, de modo que siempre hay horarios que se liberan y se vuelven a disputar.
+ * Con Mode.SampleTime JMH informa los percentiles de latencia (p99 incluido) de cada operación.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx4g"})
+public class ReservasConcurrentesBenchmark {
+
+    /** Horarios disputados, separados lo suficiente para no solaparse entre sí. */
+    private static final LocalTime[] HORAS_DISPUTADAS = {
+            LocalTime.of(12, 0), LocalTime.of(14, 30), LocalTime.of(17, 0), LocalTime.of(19, 30)};
+
+    /**
+     * Horarios que comparten los hilos de un grupo y las reservas logradas que quedan por cancelar.
+     */
+    @State(Scope.Group)
+    public static class Disputa {
+
+        final ConcurrentLinkedQueue<Long> logradas = new ConcurrentLinkedQueue<>();
+        private volatile Mesa mesa;
+        private volatile LocalDate fecha;
+
+        /** Primer día después de las fechas sembradas, para que los horarios empiecen libres. */
+        void preparar(EntornoBenchmark entorno) {
+            if (mesa == null) {
+                fecha = entorno.primerDia.plusDays(entorno.dias);
+                mesa = entorno.mesasActivas.get(0);
+            }
+        }
+    }
+
+    @Benchmark
+    @Group("disputa")
+    @GroupThreads(24)
+    public Optional<Reserva> reservar(EntornoBenchmark entorno, Disputa disputa) {
+        disputa.preparar(entorno);
+        LocalTime hora = HORAS_DISPUTADAS[ThreadLocalRandom.current().nextInt(HORAS_DISPUTADAS.length)];
+        Optional<Reserva> creada = entorno.reservaService.crear(
+                new Reserva(disputa.fecha, hora, 2, entorno.clienteAlAzar(), disputa.mesa));
+        creada.ifPresent(reserva -> disputa.logradas.offer(reserva.getId()));
+        return creada;
+    }
+
+    @Benchmark
+    @Group("disputa")
+    @GroupThreads(8)
+    public boolean cancelar(EntornoBenchmark entorno, Disputa disputa) {
+        Long id = disputa.logradas.poll();
+        if (id == null) {
+            return false;
+        }
+        entorno.reservaService.cancelar(id);
+        return true;
+    }
+}
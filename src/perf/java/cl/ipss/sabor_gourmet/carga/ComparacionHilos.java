@@ -0,0 +1,60 @@
+package cl.ipss.sabor_gourmet.carga;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compara el modo de hilos de plataforma con el de hilos virtuales bajo alta concurrencia.
+ * Levanta la aplicación una vez por modo, en este mismo proceso, y corre el generador de carga
+ * con los mismos parámetros contra cada una.
+ * <p>
+ * Uso: ./mvnw -Pperf test-compile exec:exec@hilos -Dcarga.args="usuarios=1000 duracion=60"
+ */
+public class ComparacionHilos {
+
+    private static final int USUARIOS_POR_DEFECTO = 500;
+
+    public static void main(String[] args) throws Exception {
+        if (Runtime.version().feature() < 21) {
+            System.out.println("Aviso: Java " + Runtime.version().feature()
+                    + " no tiene hilos virtuales; el modo virtual solo aplicará el pool y el limitador.");
+        }
+        Map<String, String[]> modos = new LinkedHashMap<>();
+        modos.put("plataforma", new String[0]);
+        modos.put("virtual", new String[]{"--spring.profiles.active=virtual"});
+
+        Map<String, InformeCarga> informes = new LinkedHashMap<>();
+        for (Map.Entry<String, String[]> modo : modos.entrySet()) {
+            ConfiguracionCarga config = ConfiguracionCarga.desdeArgumentos(args);
+            if (!contieneUsuarios(args)) {
+                config.setUsuarios(USUARIOS_POR_DEFECTO);
+            }
+            System.out.println("\n=== Modo " + modo.getKey() + " ===");
+            ConfigurableApplicationContext aplicacion = GeneradorCarga.iniciarAplicacion(modo.getValue());
+            try {
+                config.setUrl("http://localhost:" + aplicacion.getEnvironment().getProperty("local.server.port"));
+                InformeCarga informe = new GeneradorCarga(config).ejecutar();
+                informe.imprimir(System.out);
+                informes.put(modo.getKey(), informe);
+            } finally {
+                aplicacion.close();
+            }
+        }
+
+        System.out.printf("%n%-12s %9s %9s %9s %8s%n", "modo", "req/s", "p50 ms", "p99 ms", "errores");
+        informes.forEach((modo, informe) -> System.out.printf("%-12s %9.1f %9.2f %9.2f %8d%n",
+                modo, informe.getSolicitudesPorSegundo(), informe.getTotal().percentilMs(50),
+                informe.getTotal().percentilMs(99), informe.getTotal().getErrores()));
+    }
+
+    private static boolean contieneUsuarios(String[] args) {
+        for (String arg : args) {
+            if (arg.replaceFirst("^--", "").startsWith("usuarios=")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
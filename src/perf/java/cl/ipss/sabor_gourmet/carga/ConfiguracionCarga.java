@@ -0,0 +1,104 @@
+package cl.ipss.sabor_gourmet.carga;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Parámetros de una ejecución del generador de carga.
+ * Se leen desde argumentos con la forma --clave=valor (los guiones son opcionales):
+ * <ul>
+ *     <li>--url: aplicación a probar (por defecto http://localhost:8080)</li>
+ *     <li>--iniciar: levanta la aplicación en este mismo proceso en un puerto libre</li>
+ *     <li>--usuarios: clientes virtuales concurrentes (por defecto 50)</li>
+ *     <li>--calentamiento y --duracion: segundos de cada fase (por defecto 10 y 30)</li>
+ *     <li>--mezcla: pesos por operación, p. ej. inicio:30,formulario:25,reservar:25,mis-reservas:15,cancelar:5</li>
+ *     <li>--clientes: emails distintos usados al reservar (por defecto 1000)</li>
+ * </ul>
+ */
+public class ConfiguracionCarga {
+
+    private String url = "http://localhost:8080";
+    private boolean iniciarAplicacion;
+    private int usuarios = 50;
+    private int segundosCalentamiento = 10;
+    private int segundosMedicion = 30;
+    private int clientes = 1000;
+    private final Map<Operacion, Integer> mezcla = new EnumMap<>(Operacion.class);
+
+    public ConfiguracionCarga() {
+        mezcla.put(Operacion.INICIO, 30);
+        mezcla.put(Operacion.FORMULARIO, 25);
+        mezcla.put(Operacion.RESERVAR, 25);
+        mezcla.put(Operacion.MIS_RESERVAS, 15);
+        mezcla.put(Operacion.CANCELAR, 5);
+    }
+
+    public static ConfiguracionCarga desdeArgumentos(String[] args) {
+        ConfiguracionCarga config = new ConfiguracionCarga();
+        for (String arg : args) {
+            String[] partes = arg.replaceFirst("^--", "").split("=", 2);
+            String valor = partes.length > 1 ? partes[1] : "true";
+            switch (partes[0]) {
+                case "url" -> config.url = valor;
+                case "iniciar" -> config.iniciarAplicacion = Boolean.parseBoolean(valor);
+                case "usuarios" -> config.usuarios = Integer.parseInt(valor);
+                case "calentamiento" -> config.segundosCalentamiento = Integer.parseInt(valor);
+                case "duracion" -> config.segundosMedicion = Integer.parseInt(valor);
+                case "clientes" -> config.clientes = Integer.parseInt(valor);
+                case "mezcla" -> config.setMezcla(valor);
+                default -> throw new IllegalArgumentException("Argumento desconocido: " + arg);
+            }
+        }
+        return config;
+    }
+
+    private void setMezcla(String valor) {
+        mezcla.clear();
+        for (String par : valor.split(",")) {
+            String[] partes = par.split(":");
+            mezcla.put(Operacion.desdeNombre(partes[0].trim()), Integer.parseInt(partes[1].trim()));
+        }
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public boolean isIniciarAplicacion() {
+        return iniciarAplicacion;
+    }
+
+    public int getUsuarios() {
+        return usuarios;
+    }
+
+    public void setUsuarios(int usuarios) {
+        this.usuarios = usuarios;
+    }
+
+    public int getSegundosCalentamiento() {
+        return segundosCalentamiento;
+    }
+
+    public int getSegundosMedicion() {
+        return segundosMedicion;
+    }
+
+    public int getClientes() {
+        return clientes;
+    }
+
+    public Map<Operacion, Integer> getMezcla() {
+        return mezcla;
+    }
+
+    @Override
+    public String toString() {
+        return "url=" + url + ", usuarios=" + usuarios + ", calentamiento=" + segundosCalentamiento
+                + "s, duracion=" + segundosMedicion + "s, mezcla=" + mezcla;
+    }
+}
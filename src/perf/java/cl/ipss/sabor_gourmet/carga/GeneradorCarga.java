@@ -0,0 +1,239 @@
+package cl.ipss.sabor_gourmet.carga;
+
+import cl.ipss.sabor_gourmet.SaborGourmetApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Generador de carga HTTP para el flujo público de reservas.
+ * Cada cliente virtual repite en bucle cerrado una operación elegida según la mezcla
+ * configurada (ver la página de inicio, abrir el formulario, reservar, buscar sus
+ * reservas o cancelar una) y registra la latencia de cada respuesta.
+ * <p>
+ * Uso: ./mvnw -Pperf test-compile exec:exec@carga -Dcarga.args="usuarios=100 duracion=60"
+ */
+public class GeneradorCarga {
+
+    private static final Pattern OPCION_MESA = Pattern.compile("<option value=\"(\\d+)\"");
+    private static final Pattern RESERVA_CANCELABLE = Pattern.compile("/reservas/(\\d+)/cancelar");
+    private static final int MAXIMO_CANCELABLES = 10_000;
+
+    private final ConfiguracionCarga config;
+    private final HttpClient http;
+    private final Operacion[] ruleta;
+    private final Queue<String> cancelables = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger cantidadCancelables = new AtomicInteger();
+    private List<String> mesaIds;
+    private volatile boolean midiendo;
+    private volatile boolean detenido;
+
+    public GeneradorCarga(ConfiguracionCarga config) {
+        this.config = config;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        List<Operacion> pesos = new ArrayList<>();
+        config.getMezcla().forEach((operacion, peso) -> {
+            for (int i = 0; i < peso; i++) {
+                pesos.add(operacion);
+            }
+        });
+        this.ruleta = pesos.toArray(new Operacion[0]);
+    }
+
+    public static void main(String[] args) throws Exception {
+        ConfiguracionCarga config = ConfiguracionCarga.desdeArgumentos(args);
+        ConfigurableApplicationContext aplicacion = null;
+        if (config.isIniciarAplicacion()) {
+            aplicacion = iniciarAplicacion();
+            config.setUrl("http://localhost:" + aplicacion.getEnvironment().getProperty("local.server.port"));
+        }
+        try {
+            new GeneradorCarga(config).ejecutar().imprimir(System.out);
+        } finally {
+            if (aplicacion != null) {
+                aplicacion.close();
+            }
+        }
+    }
+
+    /**
+     * Levanta la aplicación en este proceso, en un puerto libre y sin log de SQL.
+     * Los límites de reservas por IP y por email se desactivan, porque todos los clientes
+     * virtuales comparten la IP local; el tope de reservas en curso sigue activo.
+     * @param argumentos propiedades adicionales con la forma --clave=valor
+     * @return contexto de la aplicación iniciada
+     */
+    public static ConfigurableApplicationContext iniciarAplicacion(String... argumentos) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0", "--spring.jpa.show-sql=false", "--logging.level.root=WARN",
+                "--sabor.admision.ip.por-minuto=0", "--sabor.admision.email.por-minuto=0"));
+        args.addAll(List.of(argumentos));
+        return SpringApplication.run(SaborGourmetApplication.class, args.toArray(new String[0]));
+    }
+
+    /**
+     * Ejecuta la fase de calentamiento y luego la de medición.
+     * @return informe con los resultados de la fase de medición
+     */
+    public InformeCarga ejecutar() throws InterruptedException {
+        System.out.println("Generador de carga: " + config);
+        mesaIds = leerMesas();
+
+        List<Map<Operacion, RegistroLatencias>> registros = new ArrayList<>();
+        List<Thread> hilos = new ArrayList<>();
+        for (int i = 0; i < config.getUsuarios(); i++) {
+            Map<Operacion, RegistroLatencias> registro = new EnumMap<>(Operacion.class);
+            for (Operacion operacion : config.getMezcla().keySet()) {
+                registro.put(operacion, new RegistroLatencias());
+            }
+            registros.add(registro);
+            Thread hilo = new Thread(() -> clienteVirtual(registro), "cliente-virtual-" + i);
+            hilos.add(hilo);
+            hilo.start();
+        }
+
+        Thread.sleep(config.getSegundosCalentamiento() * 1000L);
+        midiendo = true;
+        long inicio = System.nanoTime();
+        Thread.sleep(config.getSegundosMedicion() * 1000L);
+        midiendo = false;
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        detenido = true;
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+
+        Map<Operacion, RegistroLatencias> totales = new EnumMap<>(Operacion.class);
+        for (Map<Operacion, RegistroLatencias> registro : registros) {
+            registro.forEach((operacion, latencias) ->
+                    totales.computeIfAbsent(operacion, o -> new RegistroLatencias()).combinar(latencias));
+        }
+        return new InformeCarga(totales, segundos);
+    }
+
+    private List<String> leerMesas() {
+        try {
+            String html = http.send(HttpRequest.newBuilder(uri("/reservas/nueva")).build(),
+                    HttpResponse.BodyHandlers.ofString()).body();
+            List<String> ids = new ArrayList<>();
+            Matcher matcher = OPCION_MESA.matcher(html);
+            while (matcher.find()) {
+                ids.add(matcher.group(1));
+            }
+            if (ids.isEmpty()) {
+                throw new IllegalStateException("No hay mesas activas en " + config.getUrl());
+            }
+            return ids;
+        } catch (Exception e) {
+            throw new IllegalStateException("No se pudo leer el formulario de reservas en " + config.getUrl(), e);
+        }
+    }
+
+    private void clienteVirtual(Map<Operacion, RegistroLatencias> registro) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (!detenido) {
+            Operacion operacion = ruleta[random.nextInt(ruleta.length)];
+            HttpRequest solicitud = solicitud(operacion, random);
+            if (solicitud == null) {
+                continue;
+            }
+            long inicio = System.nanoTime();
+            try {
+                HttpResponse<String> respuesta = http.send(solicitud, HttpResponse.BodyHandlers.ofString());
+                long latencia = System.nanoTime() - inicio;
+                if (!midiendo) {
+                    continue;
+                }
+                RegistroLatencias latencias = registro.get(operacion);
+                if (respuesta.statusCode() == 429) {
+                    // Control de admisión: la aplicación descartó el intento a propósito, no falló
+                    latencias.registrarRechazo(latencia);
+                } else if (respuesta.statusCode() >= 400) {
+                    latencias.registrarError();
+                } else if (operacion == Operacion.RESERVAR && respuesta.body().contains("No hay disponibilidad")) {
+                    latencias.registrarRechazo(latencia);
+                } else {
+                    latencias.registrar(latencia);
+                }
+                if (operacion == Operacion.MIS_RESERVAS) {
+                    recordarCancelables(respuesta.body());
+                }
+            } catch (Exception e) {
+                if (midiendo) {
+                    registro.get(operacion).registrarError();
+                }
+            }
+        }
+    }
+
+    private HttpRequest solicitud(Operacion operacion, ThreadLocalRandom random) {
+        String email = "carga" + random.nextInt(config.getClientes()) + "@prueba.cl";
+        switch (operacion) {
+            case INICIO:
+                return HttpRequest.newBuilder(uri("/")).build();
+            case FORMULARIO:
+                return HttpRequest.newBuilder(uri("/reservas/nueva")).build();
+            case RESERVAR:
+                String formulario = "nombreCliente=Cliente+de+carga"
+                        + "&emailCliente=" + URLEncoder.encode(email, StandardCharsets.UTF_8)
+                        + "&telefonoCliente=912345678"
+                        + "&fecha=" + LocalDate.now().plusDays(1 + random.nextInt(365))
+                        + "&hora=" + LocalTime.of(12, 0).plusMinutes(30L * random.nextInt(20))
+                        + "&numeroPersonas=2"
+                        + "&mesaId=" + mesaIds.get(random.nextInt(mesaIds.size()));
+                return HttpRequest.newBuilder(uri("/reservas"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(formulario))
+                        .build();
+            case MIS_RESERVAS:
+                return HttpRequest.newBuilder(uri("/reservas/mis-reservas?email="
+                        + URLEncoder.encode(email, StandardCharsets.UTF_8))).build();
+            case CANCELAR:
+                String id = cancelables.poll();
+                if (id == null) {
+                    return null;
+                }
+                cantidadCancelables.decrementAndGet();
+                return HttpRequest.newBuilder(uri("/reservas/" + id + "/cancelar"))
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build();
+            default:
+                throw new IllegalArgumentException(operacion.name());
+        }
+    }
+
+    private void recordarCancelables(String html) {
+        Matcher matcher = RESERVA_CANCELABLE.matcher(html);
+        while (matcher.find() && cantidadCancelables.get() < MAXIMO_CANCELABLES) {
+            cancelables.add(matcher.group(1));
+            cantidadCancelables.incrementAndGet();
+        }
+    }
+
+    private URI uri(String ruta) {
+        return URI.create(config.getUrl() + ruta);
+    }
+}
@@ -0,0 +1,48 @@
+package cl.ipss.sabor_gourmet.carga;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Resultado de una ejecución: throughput y percentiles de latencia por operación y en total.
+ */
+public class InformeCarga {
+
+    private final Map<Operacion, RegistroLatencias> porOperacion = new EnumMap<>(Operacion.class);
+    private final RegistroLatencias total = new RegistroLatencias();
+    private final double segundos;
+
+    public InformeCarga(Map<Operacion, RegistroLatencias> porOperacion, double segundos) {
+        this.porOperacion.putAll(porOperacion);
+        this.porOperacion.values().forEach(total::combinar);
+        this.segundos = segundos;
+    }
+
+    public double getSolicitudesPorSegundo() {
+        return total.getCantidad() / segundos;
+    }
+
+    public RegistroLatencias getTotal() {
+        return total;
+    }
+
+    public RegistroLatencias getOperacion(Operacion operacion) {
+        return porOperacion.get(operacion);
+    }
+
+    public void imprimir(PrintStream salida) {
+        salida.printf("%n%-14s %9s %9s %8s %9s %9s %9s %9s %9s%n",
+                "operación", "total", "req/s", "errores", "rechazos", "p50 ms", "p90 ms", "p99 ms", "máx ms");
+        porOperacion.forEach((operacion, registro) -> imprimirFila(salida, operacion.getNombre(), registro));
+        imprimirFila(salida, "TOTAL", total);
+    }
+
+    private void imprimirFila(PrintStream salida, String nombre, RegistroLatencias registro) {
+        salida.printf("%-14s %9d %9.1f %8d %9d %9.2f %9.2f %9.2f %9.2f%n",
+                nombre, registro.getCantidad(), registro.getCantidad() / segundos,
+                registro.getErrores(), registro.getRechazos(),
+                registro.percentilMs(50), registro.percentilMs(90), registro.percentilMs(99),
+                registro.percentilMs(100));
+    }
+}
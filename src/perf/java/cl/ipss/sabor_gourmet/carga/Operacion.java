@@ -0,0 +1,31 @@
+package cl.ipss.sabor_gourmet.carga;
+
+/**
+ * Operaciones del flujo público que ejecuta el generador de carga.
+ */
+public enum Operacion {
+    INICIO("inicio"),
+    FORMULARIO("formulario"),
+    RESERVAR("reservar"),
+    MIS_RESERVAS("mis-reservas"),
+    CANCELAR("cancelar");
+
+    private final String nombre;
+
+    Operacion(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public static Operacion desdeNombre(String nombre) {
+        for (Operacion operacion : values()) {
+            if (operacion.nombre.equals(nombre)) {
+                return operacion;
+            }
+        }
+        throw new IllegalArgumentException("Operación desconocida: " + nombre);
+    }
+}
@@ -0,0 +1,69 @@
+package cl.ipss.sabor_gourmet.carga;
+
+import java.util.Arrays;
+
+/**
+ * Muestras de latencia de una operación. Cada cliente virtual tiene las suyas,
+ * sin sincronización, y al final se combinan para calcular percentiles.
+ */
+public class RegistroLatencias {
+
+    private long[] muestras = new long[1024];
+    private int cantidad;
+    private long rechazos;
+    private long errores;
+
+    public void registrar(long nanos) {
+        if (cantidad == muestras.length) {
+            muestras = Arrays.copyOf(muestras, cantidad * 2);
+        }
+        muestras[cantidad++] = nanos;
+    }
+
+    /** Respuesta correcta pero con el negocio rechazando la operación (p. ej. sin disponibilidad). */
+    public void registrarRechazo(long nanos) {
+        registrar(nanos);
+        rechazos++;
+    }
+
+    public void registrarError() {
+        errores++;
+    }
+
+    public void combinar(RegistroLatencias otro) {
+        if (cantidad + otro.cantidad > muestras.length) {
+            muestras = Arrays.copyOf(muestras, cantidad + otro.cantidad);
+        }
+        System.arraycopy(otro.muestras, 0, muestras, cantidad, otro.cantidad);
+        cantidad += otro.cantidad;
+        rechazos += otro.rechazos;
+        errores += otro.errores;
+    }
+
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    public long getRechazos() {
+        return rechazos;
+    }
+
+    public long getErrores() {
+        return errores;
+    }
+
+    /**
+     * Calcula un percentil de las muestras registradas.
+     * @param percentil valor entre 0 y 100
+     * @return latencia en milisegundos
+     */
+    public double percentilMs(double percentil) {
+        if (cantidad == 0) {
+            return 0;
+        }
+        long[] ordenadas = Arrays.copyOf(muestras, cantidad);
+        Arrays.sort(ordenadas);
+        int indice = (int) Math.ceil(percentil / 100.0 * cantidad) - 1;
+        return ordenadas[Math.max(0, Math.min(indice, cantidad - 1))] / 1e6;
+    }
+}
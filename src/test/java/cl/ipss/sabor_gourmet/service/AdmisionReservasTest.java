@@ -0,0 +1,76 @@
+package cl.ipss.sabor_gourmet.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica que la cubeta de cada clave deje pasar exactamente su ráfaga aunque muchos hilos
+ * la disputen, y que el tope de reservas en curso rechace al vencer la espera y libere el turno al cerrar.
+ */
+class AdmisionReservasTest {
+
+    private static final int HILOS = 32;
+
+    @Test
+    void laRafagaSeRespetaConHilosSimultaneos() throws Exception {
+        LimitadorTasa limitador = new LimitadorTasa(1, 5, 1000);
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(HILOS);
+        try {
+            List<Future<Integer>> admitidas = new ArrayList<>();
+            for (int i = 0; i < HILOS; i++) {
+                admitidas.add(pool.submit(() -> {
+                    largada.await();
+                    int admitidasHilo = 0;
+                    for (int intento = 0; intento < 10; intento++) {
+                        if (limitador.intentar("cliente@correo.cl") == 0) {
+                            admitidasHilo++;
+                        }
+                    }
+                    return admitidasHilo;
+                }));
+            }
+            largada.countDown();
+            int total = 0;
+            for (Future<Integer> admitidasHilo : admitidas) {
+                total += admitidasHilo.get(10, TimeUnit.SECONDS);
+            }
+            assertEquals(5, total);
+        } finally {
+            pool.shutdownNow();
+        }
+        long espera = limitador.intentar("cliente@correo.cl");
+        assertTrue(espera > 0 && espera <= TimeUnit.MINUTES.toNanos(1));
+        assertEquals(0, limitador.intentar("otro@correo.cl"));
+    }
+
+    @Test
+    void elTopeDeReservasEnCursoRechazaYLiberaTurnos() {
+        AdmisionReservas admision = new AdmisionReservas(0, 0, 2, 2, 1, 10, new SimpleMeterRegistry());
+
+        try (AdmisionReservas.Admision primera = admision.admitir("10.0.0.1", "Uno@Correo.cl ")) {
+            assertTrue(primera.isAdmitida());
+            AdmisionReservas.Admision segunda = admision.admitir("10.0.0.2", "dos@correo.cl");
+            assertEquals(AdmisionReservas.Resultado.SATURADA, segunda.getResultado());
+            assertEquals(1, segunda.getReintentarEnSegundos());
+        }
+        try (AdmisionReservas.Admision tercera = admision.admitir("10.0.0.1", "uno@correo.cl")) {
+            assertTrue(tercera.isAdmitida());
+        }
+        // La cubeta del email ya gastó su ráfaga, aunque se escriba distinto
+        AdmisionReservas.Admision cuarta = admision.admitir("10.0.0.3", "UNO@correo.cl");
+        assertEquals(AdmisionReservas.Resultado.LIMITE_EMAIL, cuarta.getResultado());
+        assertEquals(30, cuarta.getReintentarEnSegundos(), 1);
+    }
+}
@@ -0,0 +1,105 @@
+package cl.ipss.sabor_gourmet.service;
+
+import cl.ipss.sabor_gourmet.dto.DiaCalendario;
+import cl.ipss.sabor_gourmet.model.Cliente;
+import cl.ipss.sabor_gourmet.model.Mesa;
+import cl.ipss.sabor_gourmet.model.Reserva;
+import cl.ipss.sabor_gourmet.repository.ClienteRepository;
+import cl.ipss.sabor_gourmet.repository.MesaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica que la foto en caché del calendario mensual y la asignación de mesas reflejen
+ * una reserva nueva en la lectura siguiente, y que al cancelarla la hora vuelva a quedar libre.
+ * También que los meses fuera del rango consultable no tengan horas libres.
+ * Con los datos de ejemplo, la única mesa activa para 8 personas es la 4.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:calendario",
+        "spring.jpa.show-sql=false"
+})
+class CalendarioServiceTest {
+
+    private static final int PERSONAS = 8;
+
+    @Autowired
+    private CalendarioService calendarioService;
+
+    @Autowired
+    private AsignadorMesas asignadorMesas;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private MesaRepository mesaRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Test
+    void unaReservaOcupaLaHoraEnElCalendarioYCancelarlaLaLibera() {
+        LocalDate fecha = LocalDate.now().plusMonths(11).withDayOfMonth(15);
+        YearMonth mes = YearMonth.from(fecha);
+        LocalTime hora = LocalTime.of(20, 0);
+        Mesa mesa = mesaRepository.findByNumero(4);
+        Cliente cliente = clienteRepository.save(new Cliente("Cliente Calendario", "calendario@prueba.cl", "933333333"));
+
+        // La primera lectura deja el mes en caché
+        assertTrue(horasDelMes(mes, fecha).contains("20:00"));
+        assertEquals(List.of(mesa.getId()), idsCandidatas(fecha, hora));
+
+        Reserva reserva = reservaService.crear(new Reserva(fecha, hora, PERSONAS, cliente, mesa)).orElseThrow();
+
+        List<String> ocupadas = horasDelMes(mes, fecha);
+        assertFalse(ocupadas.contains("20:00"), ocupadas.toString());
+        // La reserva dura más de una hora, así que tampoco se puede empezar justo antes
+        assertFalse(ocupadas.contains("19:00"), ocupadas.toString());
+        assertTrue(ocupadas.contains("17:00"), ocupadas.toString());
+        assertEquals(ocupadas, calendarioService.dia(fecha, PERSONAS).getHorasLibres());
+        assertTrue(idsCandidatas(fecha, hora).isEmpty());
+        // Un grupo de 2 sigue teniendo la hora, en la mesa más ajustada
+        assertEquals(1, asignadorMesas.candidatas(fecha, hora, 2).get(0).getNumero());
+
+        reservaService.cancelar(reserva.getId());
+
+        assertTrue(horasDelMes(mes, fecha).contains("20:00"));
+        assertTrue(calendarioService.dia(fecha, PERSONAS).getHorasLibres().contains("19:00"));
+        assertEquals(List.of(mesa.getId()), idsCandidatas(fecha, hora));
+    }
+
+    @Test
+    void losMesesFueraDelRangoNoTienenHorasLibres() {
+        YearMonth lejano = YearMonth.now().plusMonths(13);
+        YearMonth pasado = YearMonth.now().minusMonths(1);
+
+        assertTrue(calendarioService.mesConsultable(YearMonth.now().plusMonths(12)));
+        assertFalse(calendarioService.mesConsultable(lejano));
+        assertFalse(calendarioService.mesConsultable(pasado));
+        assertTrue(calendarioService.calendario(lejano, PERSONAS).getDias().isEmpty());
+        assertTrue(calendarioService.calendario(pasado, PERSONAS).getDias().isEmpty());
+        assertTrue(calendarioService.dia(lejano.atDay(1), PERSONAS).getHorasLibres().isEmpty());
+    }
+
+    private List<String> horasDelMes(YearMonth mes, LocalDate fecha) {
+        return calendarioService.calendario(mes, PERSONAS).getDias().stream()
+                .filter(dia -> dia.getFecha().equals(fecha))
+                .map(DiaCalendario::getHorasLibres)
+                .findFirst().orElseThrow();
+    }
+
+    private List<Long> idsCandidatas(LocalDate fecha, LocalTime hora) {
+        return asignadorMesas.candidatas(fecha, hora, PERSONAS).stream().map(Mesa::getId).toList();
+    }
+}
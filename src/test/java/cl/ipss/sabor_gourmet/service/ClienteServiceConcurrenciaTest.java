@@ -0,0 +1,68 @@
+package cl.ipss.sabor_gourmet.service;
+
+import cl.ipss.sabor_gourmet.model.Cliente;
+import cl.ipss.sabor_gourmet.repository.ClienteRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Verifica que varias primeras reservas simultáneas con el mismo email terminen todas
+ * en un único cliente, sin que la restricción única haga fallar a ninguna, y que las
+ * siguientes búsquedas salgan de la caché.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:clientes-concurrencia",
+        "spring.jpa.show-sql=false"
+})
+class ClienteServiceConcurrenciaTest {
+
+    private static final int SOLICITUDES = 16;
+    private static final int RONDAS = 5;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Test
+    void clientesNuevosSimultaneosConElMismoEmailNoFallan() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(SOLICITUDES);
+        try {
+            for (int ronda = 0; ronda < RONDAS; ronda++) {
+                String email = "nuevo" + ronda + "@concurrencia.cl";
+                CountDownLatch largada = new CountDownLatch(1);
+                List<Future<Cliente>> resultados = new ArrayList<>();
+                for (int i = 0; i < SOLICITUDES; i++) {
+                    resultados.add(pool.submit(() -> {
+                        largada.await();
+                        return clienteService.buscarOCrear("Cliente Nuevo", email, "912345678");
+                    }));
+                }
+                largada.countDown();
+                List<Long> ids = new ArrayList<>();
+                for (Future<Cliente> resultado : resultados) {
+                    ids.add(resultado.get().getId());
+                }
+
+                Long id = clienteRepository.findByEmail(email).orElseThrow().getId();
+                assertEquals(List.of(id), ids.stream().distinct().toList());
+                assertSame(clienteService.buscarOCrear("Otro Nombre", email, "999999999"),
+                        clienteService.buscarPorEmail(email).orElseThrow());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
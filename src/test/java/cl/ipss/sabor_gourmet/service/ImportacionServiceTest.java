@@ -0,0 +1,141 @@
+package cl.ipss.sabor_gourmet.service;
+
+import cl.ipss.sabor_gourmet.dto.ErrorImportacion;
+import cl.ipss.sabor_gourmet.dto.FormatoArchivo;
+import cl.ipss.sabor_gourmet.dto.ResultadoImportacion;
+import cl.ipss.sabor_gourmet.model.Cliente;
+import cl.ipss.sabor_gourmet.model.Mesa;
+import cl.ipss.sabor_gourmet.model.Reserva;
+import cl.ipss.sabor_gourmet.repository.ClienteRepository;
+import cl.ipss.sabor_gourmet.repository.MesaRepository;
+import cl.ipss.sabor_gourmet.repository.ReservaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica la importación masiva: qué filas de un CSV mezclado se importan y por qué se rechaza
+ * cada una de las demás, y que un lote que choca en la base de datos con una reserva que el
+ * índice no conocía se reintente fila por fila sin perder las filas válidas.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:importacion",
+        "spring.jpa.show-sql=false"
+})
+class ImportacionServiceTest {
+
+    private static final String ENCABEZADO = "email,nombre,telefono,fecha,hora,personas,mesa,estado,duracion\n";
+
+    @Autowired
+    private ImportacionService importacionService;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private IndiceOcupacion indiceOcupacion;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private MesaRepository mesaRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Test
+    void unCsvMezcladoInformaCadaFilaRechazada() throws Exception {
+        LocalDate fecha = LocalDate.now().plusYears(7);
+        Mesa mesa1 = mesaRepository.findByNumero(1);
+        Mesa mesa2 = mesaRepository.findByNumero(2);
+        Cliente existente = clienteRepository.save(new Cliente("Cliente Existente", "existente@importacion.cl", "911111111"));
+        Reserva previa = new Reserva(fecha, LocalTime.of(13, 0), 2, existente, mesa2);
+        previa.setDuracionMinutos(90);
+        reservaService.crear(previa).orElseThrow();
+
+        String csv = ENCABEZADO
+                + "ana@importacion.cl,Ana,900000001," + fecha + ",20:00,2,1,,90\n"          // 2: se importa
+                + "beto@importacion.cl,Beto,900000002," + fecha + ",20:30,2,1,,90\n"        // 3: choca en el lote
+                + "carla@importacion.cl,Carla,900000003,mañana,20:00,2,3,,90\n"            // 4: fecha inválida
+                + "existente@importacion.cl,,," + fecha + ",13:30,2,2,,90\n"                // 5: choca con la previa
+                + "dani@importacion.cl,Dani,900000004," + fecha + ",20:15,2,1,CANCELADA,90\n" // 6: cancelada, se importa
+                + "nadie@importacion.cl,,," + fecha + ",15:00,2,3,,90\n"                    // 7: cliente sin nombre
+                + "eva@importacion.cl,Eva,900000005," + fecha + ",15:00,2,99,,90\n"          // 8: mesa inexistente
+                + "existente@importacion.cl,,," + fecha + ",14:30,2,2,,90\n";              // 9: se importa
+
+        ResultadoImportacion resultado = importar(csv);
+
+        assertEquals(8, resultado.getFilasLeidas());
+        assertEquals(3, resultado.getImportadas());
+        assertEquals(2, resultado.getClientesCreados());
+        Map<Long, String> errores = errores(resultado);
+        assertEquals(List.of(3L, 4L, 5L, 7L, 8L), List.copyOf(errores.keySet()));
+        assertTrue(errores.get(3L).startsWith("La mesa 1 ya está reservada"), errores.get(3L));
+        assertEquals("Fecha inválida, use AAAA-MM-DD", errores.get(4L));
+        assertTrue(errores.get(5L).startsWith("La mesa 2 ya está reservada"), errores.get(5L));
+        assertEquals("El cliente nadie@importacion.cl no existe y la fila no trae nombre", errores.get(7L));
+        assertEquals("La mesa 99 no existe", errores.get(8L));
+
+        Map<String, String> reservas = reservaRepository.findByFecha(fecha).stream()
+                .collect(Collectors.toMap(r -> r.getCliente().getEmail() + "@" + r.getHora(), Reserva::getEstado));
+        assertEquals(Map.of(
+                "existente@importacion.cl@13:00", "ACTIVA",
+                "ana@importacion.cl@20:00", "ACTIVA",
+                "dani@importacion.cl@20:15", "CANCELADA",
+                "existente@importacion.cl@14:30", "ACTIVA"), reservas);
+        assertTrue(indiceOcupacion.estaOcupada(mesa1.getId(), fecha, LocalTime.of(21, 0), 30));
+    }
+
+    @Test
+    void unLoteQueChocaEnLaBaseDeDatosSeReintentaFilaPorFila() throws Exception {
+        LocalDate fecha = LocalDate.now().plusYears(8);
+        Mesa mesa1 = mesaRepository.findByNumero(1);
+        Cliente existente = clienteRepository.save(new Cliente("Cliente Directo", "directo@importacion.cl", "922222222"));
+        // El índice carga el día y después entra una reserva por fuera de él
+        indiceOcupacion.precargar(fecha);
+        Reserva directa = new Reserva(fecha, LocalTime.of(19, 0), 2, existente, mesa1);
+        directa.setDuracionMinutos(90);
+        reservaRepository.saveAndFlush(directa);
+
+        String csv = ENCABEZADO
+                + "fede@importacion.cl,Fede,900000006," + fecha + ",19:00,2,1,,90\n"   // 2: choca con la directa
+                + "gabi@importacion.cl,Gabi,900000007," + fecha + ",19:00,4,3,,90\n"   // 3: se importa
+                + "directo@importacion.cl,,," + fecha + ",19:00,2,2,,90\n";           // 4: se importa
+
+        ResultadoImportacion resultado = importar(csv);
+
+        assertEquals(2, resultado.getImportadas());
+        assertEquals(1, resultado.getClientesCreados());
+        assertEquals(Map.of(2L, "Conflicto con una reserva o cliente registrado en paralelo"), errores(resultado));
+        assertEquals(3, reservaRepository.findByFechaAndEstado(fecha, "ACTIVA").size());
+        assertTrue(clienteRepository.findByEmail("fede@importacion.cl").isEmpty());
+        // El día se descartó del índice y al recargarlo ya ve la reserva directa
+        assertTrue(indiceOcupacion.estaOcupada(mesa1.getId(), fecha, LocalTime.of(20, 0), 30));
+    }
+
+    private ResultadoImportacion importar(String csv) throws Exception {
+        return importacionService.importar(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                FormatoArchivo.CSV);
+    }
+
+    private static Map<Long, String> errores(ResultadoImportacion resultado) {
+        Map<Long, String> errores = new TreeMap<>();
+        for (ErrorImportacion error : resultado.getErrores()) {
+            errores.put(error.getLinea(), error.getMensaje());
+        }
+        return errores;
+    }
+}
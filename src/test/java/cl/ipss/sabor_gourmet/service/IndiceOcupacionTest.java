@@ -0,0 +1,131 @@
+package cl.ipss.sabor_gourmet.service;
+
+import cl.ipss.sabor_gourmet.dto.SlotOcupado;
+import cl.ipss.sabor_gourmet.repository.ReservaRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifica las reglas de solapamiento del índice de ocupación: intervalos semiabiertos,
+ * recorte a medianoche, reservas seguidas de distinta duración y liberación por minuto de inicio.
+ * También que los días en memoria no pasen del máximo.
+ */
+class IndiceOcupacionTest {
+
+    private static final Long MESA = 1L;
+    private static final LocalDate FECHA = LocalDate.of(2030, 6, 14);
+
+    private final ReservaRepository reservaRepository = mock(ReservaRepository.class);
+    private final IndiceOcupacion indice = new IndiceOcupacion(reservaRepository, 3);
+
+    @Test
+    void intervalosQueSeTocanNoSeSolapan() {
+        indice.precargar(FECHA);
+        indice.ocupar(MESA, FECHA, LocalTime.of(19, 0), 90);
+
+        assertFalse(indice.estaOcupada(MESA, FECHA, LocalTime.of(20, 30), 90));
+        assertFalse(indice.estaOcupada(MESA, FECHA, LocalTime.of(17, 30), 90));
+        assertTrue(indice.estaOcupada(MESA, FECHA, LocalTime.of(20, 29), 90));
+        assertTrue(indice.estaOcupada(MESA, FECHA, LocalTime.of(17, 31), 90));
+        assertTrue(indice.estaOcupada(MESA, FECHA, LocalTime.of(19, 0), 1));
+        assertFalse(indice.estaOcupada(2L, FECHA, LocalTime.of(19, 0), 90));
+    }
+
+    @Test
+    void unaReservaQueCruzaLaMedianocheSeRecortaAlDia() {
+        assertEquals(24 * 60, IntervalosOcupados.fin(IntervalosOcupados.minuto(LocalTime.of(23, 0)), 120));
+
+        indice.precargar(FECHA);
+        indice.precargar(FECHA.plusDays(1));
+        indice.ocupar(MESA, FECHA, LocalTime.of(23, 0), 120);
+
+        assertTrue(indice.estaOcupada(MESA, FECHA, LocalTime.of(23, 59), 30));
+        assertTrue(indice.estaOcupada(MESA, FECHA, LocalTime.of(22, 0), 61));
+        assertFalse(indice.estaOcupada(MESA, FECHA, LocalTime.of(21, 30), 90));
+        assertFalse(indice.estaOcupada(MESA, FECHA.plusDays(1), LocalTime.of(0, 0), 90));
+    }
+
+    @Test
+    void reservasSeguidasDeDistintaDuracion() {
+        indice.precargar(FECHA);
+        indice.ocupar(MESA, FECHA, LocalTime.of(18, 0), 90);
+        indice.ocupar(MESA, FECHA, LocalTime.of(19, 30), 150);
+        indice.ocupar(MESA, FECHA, LocalTime.of(22, 0), 120);
+
+        assertFalse(indice.estaOcupada(MESA, FECHA, LocalTime.of(16, 30), 90));
+        assertTrue(indice.estaOcupada(MESA, FECHA, LocalTime.of(16, 30), 91));
+        assertTrue(indice.estaOcupada(MESA, FECHA, LocalTime.of(19, 29), 1));
+        assertTrue(indice.estaOcupada(MESA, FECHA, LocalTime.of(21, 59), 1));
+        // Un intervalo largo que envuelve a varios también choca
+        assertTrue(indice.estaOcupada(MESA, FECHA, LocalTime.of(12, 0), 11 * 60));
+
+        indice.liberar(MESA, FECHA, LocalTime.of(19, 30));
+        assertFalse(indice.estaOcupada(MESA, FECHA, LocalTime.of(19, 30), 150));
+        assertTrue(indice.estaOcupada(MESA, FECHA, LocalTime.of(19, 30), 151));
+    }
+
+    @Test
+    void liberarSoloQuitaElIntervaloQueEmpiezaEnEseMinuto() {
+        indice.precargar(FECHA);
+        indice.ocupar(MESA, FECHA, LocalTime.of(20, 0), 90);
+
+        indice.liberar(MESA, FECHA, LocalTime.of(20, 15));
+        assertTrue(indice.estaOcupada(MESA, FECHA, LocalTime.of(20, 15), 30));
+
+        indice.liberar(MESA, FECHA, LocalTime.of(20, 0));
+        assertFalse(indice.estaOcupada(MESA, FECHA, LocalTime.of(20, 0), 90));
+    }
+
+    @Test
+    void unDiaSinCargarSeLeeDeLaBaseDeDatos() {
+        SlotOcupado ocupado = mock(SlotOcupado.class);
+        when(ocupado.getMesaId()).thenReturn(MESA);
+        when(ocupado.getHora()).thenReturn(LocalTime.of(13, 0));
+        when(ocupado.getDuracionMinutos()).thenReturn(120);
+        when(reservaRepository.findSlotsByFechaAndEstado(eq(FECHA), any())).thenReturn(List.of(ocupado));
+
+        // Sin el día en memoria, ocupar no hace nada: la carga ya leerá la reserva
+        indice.ocupar(MESA, FECHA, LocalTime.of(20, 0), 90);
+        assertTrue(indice.estaOcupada(MESA, FECHA, LocalTime.of(14, 59), 30));
+        assertFalse(indice.estaOcupada(MESA, FECHA, LocalTime.of(15, 0), 90));
+        assertFalse(indice.estaOcupada(MESA, FECHA, LocalTime.of(20, 0), 90));
+    }
+
+    @Test
+    void alSuperarElMaximoSeDescartanLosDiasPasadosYLuegoLosMenosUsados() {
+        LocalDate ayer = LocalDate.now().minusDays(1);
+        indice.precargar(FECHA);
+        indice.precargar(FECHA.plusDays(1));
+        indice.precargar(ayer);
+        // El cuarto día descarta ayer aunque se cargó después, por ser un día pasado
+        indice.precargar(FECHA.plusDays(2));
+        indice.estaOcupada(MESA, FECHA, LocalTime.of(20, 0), 90);
+        // El quinto descarta el día siguiente a FECHA, el usado hace más tiempo
+        indice.precargar(FECHA.plusDays(3));
+
+        indice.precargar(FECHA);
+        indice.precargar(FECHA.plusDays(2));
+        indice.precargar(FECHA.plusDays(3));
+        verify(reservaRepository, times(1)).findSlotsByFechaAndEstado(eq(FECHA), any());
+        verify(reservaRepository, times(1)).findSlotsByFechaAndEstado(eq(FECHA.plusDays(2)), any());
+        verify(reservaRepository, times(1)).findSlotsByFechaAndEstado(eq(FECHA.plusDays(3)), any());
+
+        indice.precargar(FECHA.plusDays(1));
+        indice.precargar(ayer);
+        verify(reservaRepository, times(2)).findSlotsByFechaAndEstado(eq(FECHA.plusDays(1)), any());
+        verify(reservaRepository, times(2)).findSlotsByFechaAndEstado(eq(ayer), any());
+    }
+}
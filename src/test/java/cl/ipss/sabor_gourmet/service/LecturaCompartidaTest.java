@@ -0,0 +1,83 @@
+package cl.ipss.sabor_gourmet.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Verifica que las lecturas simultáneas de una misma clave compartan una consulta,
+ * que el resultado se reutilice dentro del TTL y que una versión nueva lo descarte.
+ */
+class LecturaCompartidaTest {
+
+    private static final int LECTORES = 32;
+
+    @Test
+    void lasLecturasSimultaneasCompartenUnaConsulta() throws Exception {
+        SimpleMeterRegistry registro = new SimpleMeterRegistry();
+        LecturaCompartida<String, Integer> lectura = new LecturaCompartida<>("prueba", 0, registro);
+        AtomicInteger consultas = new AtomicInteger();
+        CountDownLatch consultaIniciada = new CountDownLatch(1);
+        CountDownLatch liberarConsulta = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(LECTORES);
+        try {
+            List<Future<Integer>> resultados = new ArrayList<>();
+            resultados.add(pool.submit(() -> lectura.obtener("hoy", 1, () -> {
+                consultaIniciada.countDown();
+                esperar(liberarConsulta);
+                return consultas.incrementAndGet();
+            })));
+            consultaIniciada.await();
+            for (int i = 1; i < LECTORES; i++) {
+                resultados.add(pool.submit(() -> lectura.obtener("hoy", 1, consultas::incrementAndGet)));
+            }
+            // Los demás lectores llegan mientras la consulta sigue en curso
+            while (registro.counter("sabor.lecturas.compartidas", "lectura", "prueba", "resultado", "en_curso").count()
+                    < LECTORES - 1) {
+                Thread.sleep(1);
+            }
+            liberarConsulta.countDown();
+            for (Future<Integer> resultado : resultados) {
+                assertEquals(1, resultado.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, consultas.get());
+
+        // Con TTL cero una lectura posterior vuelve a consultar
+        assertEquals(2, lectura.obtener("hoy", 1, consultas::incrementAndGet));
+    }
+
+    @Test
+    void dentroDelTtlSeReutilizaHastaQueCambiaLaVersion() {
+        LecturaCompartida<String, Integer> lectura = new LecturaCompartida<>("prueba", 60_000, new SimpleMeterRegistry());
+        AtomicInteger consultas = new AtomicInteger();
+
+        assertEquals(1, lectura.obtener("hoy", 1, consultas::incrementAndGet));
+        assertEquals(1, lectura.obtener("hoy", 1, consultas::incrementAndGet));
+        assertEquals(2, lectura.obtener("hoy", 2, consultas::incrementAndGet));
+        // Quien leyó la versión anterior puede recibir el resultado más nuevo
+        assertEquals(2, lectura.obtener("hoy", 1, consultas::incrementAndGet));
+        assertEquals(3, lectura.obtener("mañana", 2, consultas::incrementAndGet));
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
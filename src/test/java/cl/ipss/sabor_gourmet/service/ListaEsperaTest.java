@@ -0,0 +1,151 @@
+package cl.ipss.sabor_gourmet.service;
+
+import cl.ipss.sabor_gourmet.model.Cliente;
+import cl.ipss.sabor_gourmet.model.Mesa;
+import cl.ipss.sabor_gourmet.model.Reserva;
+import cl.ipss.sabor_gourmet.model.SolicitudEspera;
+import cl.ipss.sabor_gourmet.repository.ClienteRepository;
+import cl.ipss.sabor_gourmet.repository.MesaRepository;
+import cl.ipss.sabor_gourmet.repository.ReservaRepository;
+import cl.ipss.sabor_gourmet.repository.SolicitudEsperaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Verifica que al cancelar una reserva la mesa pase en segundo plano al grupo en espera
+ * que mejor la aprovecha, que los grupos que no caben sigan esperando, que una hora ya pasada
+ * no se promueva, y que un cliente no quede dos veces en espera el mismo día aunque se anote
+ * varias veces a la vez.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:lista-espera",
+        "spring.jpa.show-sql=false"
+})
+class ListaEsperaTest {
+
+    private static final int HILOS = 16;
+
+    @Autowired
+    private ListaEsperaService listaEsperaService;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private SolicitudEsperaRepository solicitudEsperaRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private MesaRepository mesaRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void alCancelarSePromueveAlGrupoQueMejorAprovechaLaMesa() throws Exception {
+        Mesa mesa = mesaRepository.findByActivaTrue().stream()
+                .max(Comparator.comparing(Mesa::getCapacidad)).orElseThrow();
+        LocalDate fecha = LocalDate.now().plusYears(6);
+        LocalTime hora = LocalTime.of(20, 0);
+        Reserva ocupada = reservaService.crear(new Reserva(fecha, hora, 1, cliente("ocupa"), mesa)).orElseThrow();
+
+        SolicitudEspera pequena = listaEsperaService.anotar(cliente("pequena"), fecha, hora.minusMinutes(30), 1);
+        SolicitudEspera justa = listaEsperaService.anotar(cliente("justa"), fecha, hora.plusMinutes(30), mesa.getCapacidad());
+        SolicitudEspera grande = listaEsperaService.anotar(cliente("grande"), fecha, hora, mesa.getCapacidad() + 1);
+        SolicitudEspera lejana = listaEsperaService.anotar(cliente("lejana"), fecha, hora.plusHours(3), 1);
+
+        reservaService.cancelar(ocupada.getId());
+
+        SolicitudEspera promovida = esperarAsignacion(justa.getId());
+        Reserva reserva = reservaRepository.findById(promovida.getReservaId()).orElseThrow();
+        assertEquals("ACTIVA", reserva.getEstado());
+        assertEquals(mesa.getId(), reserva.getMesa().getId());
+        assertEquals(hora, reserva.getHora());
+        assertEquals(mesa.getCapacidad(), reserva.getNumeroPersonas());
+        for (SolicitudEspera sigue : new SolicitudEspera[]{pequena, grande, lejana}) {
+            assertEquals("ESPERANDO", solicitudEsperaRepository.findById(sigue.getId()).orElseThrow().getEstado());
+        }
+    }
+
+    @Test
+    void unaMesaLiberadaEnUnaHoraPasadaNoSePromueve() throws Exception {
+        Mesa mesa = mesaRepository.findByNumero(2);
+        LocalDate ayer = LocalDate.now().minusDays(1);
+        LocalTime hora = LocalTime.of(13, 0);
+        Reserva pasada = reservaService.crear(new Reserva(ayer, hora, 2, cliente("tarde"), mesa)).orElseThrow();
+        SolicitudEspera espera = listaEsperaService.anotar(cliente("atrasada"), ayer, hora, 2);
+        double antes = meterRegistry.counter("sabor.espera.liberaciones", "resultado", "pasada").count();
+
+        reservaService.cancelar(pasada.getId());
+
+        assertEquals(antes + 1, meterRegistry.counter("sabor.espera.liberaciones", "resultado", "pasada").count());
+        Thread.sleep(300);
+        assertEquals("ESPERANDO", solicitudEsperaRepository.findById(espera.getId()).orElseThrow().getEstado());
+    }
+
+    @Test
+    void anotacionesSimultaneasDelMismoClienteDejanUnaSolaSolicitud() throws Exception {
+        Cliente cliente = cliente("repetido");
+        LocalDate fecha = LocalDate.now().plusYears(6).plusDays(1);
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(HILOS);
+        try {
+            List<Future<SolicitudEspera>> anotaciones = new ArrayList<>();
+            for (int i = 0; i < HILOS; i++) {
+                anotaciones.add(pool.submit(() -> {
+                    largada.await();
+                    return listaEsperaService.anotar(cliente, fecha, LocalTime.of(21, 0), 2);
+                }));
+            }
+            largada.countDown();
+            Set<Long> ids = new HashSet<>();
+            for (Future<SolicitudEspera> anotacion : anotaciones) {
+                ids.add(anotacion.get(10, TimeUnit.SECONDS).getId());
+            }
+            assertEquals(1, ids.size());
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, solicitudEsperaRepository.findAll().stream()
+                .filter(s -> s.getCliente().getId().equals(cliente.getId()) && s.getFecha().equals(fecha))
+                .count());
+    }
+
+    private Cliente cliente(String nombre) {
+        return clienteRepository.save(new Cliente("Cliente " + nombre, nombre + "@espera.cl", "912345678"));
+    }
+
+    private SolicitudEspera esperarAsignacion(Long id) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            SolicitudEspera solicitud = solicitudEsperaRepository.findById(id).orElseThrow();
+            if ("ASIGNADA".equals(solicitud.getEstado())) {
+                return solicitud;
+            }
+            Thread.sleep(50);
+        }
+        return fail("La solicitud " + id + " no fue promovida");
+    }
+}
@@ -0,0 +1,154 @@
+package cl.ipss.sabor_gourmet.service;
+
+import cl.ipss.sabor_gourmet.model.Cliente;
+import cl.ipss.sabor_gourmet.model.Mesa;
+import cl.ipss.sabor_gourmet.model.Notificacion;
+import cl.ipss.sabor_gourmet.model.Reserva;
+import cl.ipss.sabor_gourmet.repository.ClienteRepository;
+import cl.ipss.sabor_gourmet.repository.MesaRepository;
+import cl.ipss.sabor_gourmet.repository.NotificacionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica el outbox de notificaciones: crear y cancelar una reserva dejan su aviso pendiente
+ * sin enviar nada en la solicitud, y el despachador lo entrega reintentando tras un fallo.
+ * También que varias cancelaciones simultáneas de una reserva dejen un solo aviso.
+ * El despachador programado queda en pausa y la prueba lo llama directamente.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:notificaciones-outbox",
+        "spring.jpa.show-sql=false",
+        "sabor.notificaciones.intervalo-ms=3600000",
+        "sabor.notificaciones.reintento-base-ms=1"
+})
+class NotificacionesOutboxTest {
+
+    private static final int CANCELACIONES = 8;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private DespachadorNotificaciones despachador;
+
+    @Autowired
+    private NotificacionRepository notificacionRepository;
+
+    @Autowired
+    private MesaRepository mesaRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private EnviadorDePrueba enviador;
+
+    @Test
+    void crearYCancelarDejanAvisosQueElDespachadorEnviaConReintentos() throws Exception {
+        Mesa mesa = mesaRepository.findByActivaTrue().get(0);
+        Cliente cliente = clienteRepository.save(new Cliente("Cliente Outbox", "outbox@notificaciones.cl", "911111111"));
+        Reserva reserva = reservaService.crear(new Reserva(LocalDate.now().plusYears(5), LocalTime.of(20, 0), 1,
+                cliente, mesa)).orElseThrow();
+        reservaService.cancelar(reserva.getId());
+
+        List<Notificacion> pendientes = deLaReserva(reserva.getId());
+        assertEquals(List.of(Notificacion.CONFIRMACION, Notificacion.CANCELACION),
+                pendientes.stream().map(Notificacion::getTipo).toList());
+        assertTrue(pendientes.stream().allMatch(n -> "PENDIENTE".equals(n.getEstado())));
+        assertTrue(enviador.enviadas.isEmpty());
+
+        // El primer envío falla: la confirmación queda para reintentar y la cancelación sale
+        enviador.fallosPendientes.set(1);
+        despachador.despachar();
+        Notificacion confirmacion = notificacionRepository.findById(pendientes.get(0).getId()).orElseThrow();
+        assertEquals("PENDIENTE", confirmacion.getEstado());
+        assertEquals(1, confirmacion.getIntentos());
+        assertEquals(List.of(pendientes.get(1).getId()), enviador.enviadas);
+
+        Thread.sleep(20);
+        despachador.despachar();
+        assertTrue(deLaReserva(reserva.getId()).stream().allMatch(n -> "ENVIADA".equals(n.getEstado())));
+        assertEquals(List.of(pendientes.get(1).getId(), pendientes.get(0).getId()), enviador.enviadas);
+    }
+
+    @Test
+    void cancelacionesSimultaneasDejanUnSoloAviso() throws Exception {
+        Mesa mesa = mesaRepository.findByActivaTrue().get(0);
+        Cliente cliente = clienteRepository.save(new Cliente("Cliente Doble", "doble@notificaciones.cl", "922222222"));
+        Reserva reserva = reservaService.crear(new Reserva(LocalDate.now().plusYears(5), LocalTime.of(13, 0), 1,
+                cliente, mesa)).orElseThrow();
+
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(CANCELACIONES);
+        try {
+            List<Future<?>> cancelaciones = new ArrayList<>();
+            for (int i = 0; i < CANCELACIONES; i++) {
+                cancelaciones.add(pool.submit(() -> {
+                    largada.await();
+                    reservaService.cancelar(reserva.getId());
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> cancelacion : cancelaciones) {
+                cancelacion.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(List.of(Notificacion.CONFIRMACION, Notificacion.CANCELACION),
+                deLaReserva(reserva.getId()).stream().map(Notificacion::getTipo).toList());
+    }
+
+    private List<Notificacion> deLaReserva(Long reservaId) {
+        return notificacionRepository.findAll().stream()
+                .filter(n -> n.getReservaId().equals(reservaId))
+                .sorted((a, b) -> Long.compare(a.getId(), b.getId()))
+                .toList();
+    }
+
+    @TestConfiguration
+    static class Configuracion {
+
+        @Bean
+        @Primary
+        EnviadorDePrueba enviadorDePrueba() {
+            return new EnviadorDePrueba();
+        }
+    }
+
+    static class EnviadorDePrueba implements EnviadorNotificaciones {
+
+        final List<Long> enviadas = new CopyOnWriteArrayList<>();
+        final AtomicInteger fallosPendientes = new AtomicInteger();
+
+        @Override
+        public void enviar(Notificacion notificacion) {
+            if (fallosPendientes.getAndDecrement() > 0) {
+                throw new IllegalStateException("proveedor no disponible");
+            }
+            enviadas.add(notificacion.getId());
+        }
+    }
+}
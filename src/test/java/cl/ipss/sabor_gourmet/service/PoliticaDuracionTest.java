@@ -0,0 +1,39 @@
+package cl.ipss.sabor_gourmet.service;
+
+import cl.ipss.sabor_gourmet.model.Mesa;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Verifica los límites de los tramos de duración y que la duración propia de una mesa los reemplace.
+ */
+class PoliticaDuracionTest {
+
+    private final PoliticaDuracion politica = new PoliticaDuracion("2:90,6:120,20:150");
+
+    @Test
+    void cadaGrupoUsaElPrimerTramoQueLoAlcanza() {
+        Mesa mesa = new Mesa(1, 30);
+        assertEquals(90, politica.duracionPara(mesa, 1));
+        assertEquals(90, politica.duracionPara(mesa, 2));
+        assertEquals(120, politica.duracionPara(mesa, 3));
+        assertEquals(120, politica.duracionPara(mesa, 6));
+        assertEquals(150, politica.duracionPara(mesa, 7));
+        assertEquals(150, politica.duracionPara(mesa, 20));
+        assertEquals(150, politica.duracionPara(mesa, 21));
+    }
+
+    @Test
+    void laDuracionDeLaMesaReemplazaLosTramos() {
+        Mesa mesa = new Mesa(2, 4);
+        mesa.setDuracionMinutos(45);
+        assertEquals(45, politica.duracionPara(mesa, 4));
+    }
+
+    @Test
+    void unTramoMalEscritoSeRechaza() {
+        assertThrows(IllegalArgumentException.class, () -> new PoliticaDuracion("2:90,6"));
+    }
+}
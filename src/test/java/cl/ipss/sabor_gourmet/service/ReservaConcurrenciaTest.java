@@ -0,0 +1,150 @@
+package cl.ipss.sabor_gourmet.service;
+
+import cl.ipss.sabor_gourmet.model.Cliente;
+import cl.ipss.sabor_gourmet.model.Mesa;
+import cl.ipss.sabor_gourmet.model.Reserva;
+import cl.ipss.sabor_gourmet.repository.ClienteRepository;
+import cl.ipss.sabor_gourmet.repository.MesaRepository;
+import cl.ipss.sabor_gourmet.repository.ReservaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prueba de estrés de ReservaService.crear con muchas solicitudes compitiendo
+ * por los mismos horarios. Verifica que nunca haya dos reservas activas en el mismo
+ * (mesa, fecha, hora). También comprueba que las reservas que se solapan en parte
+ * se rechacen. El throughput y la latencia se miden en el perfil perf, no aquí.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reservas-concurrencia",
+        "spring.jpa.show-sql=false"
+})
+class ReservaConcurrenciaTest {
+
+    private static final int HILOS = 32;
+    private static final int INTENTOS_POR_HORARIO = 100;
+    private static final int HORAS = 10;
+    private static final int DURACION = 90;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private MesaRepository mesaRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Test
+    void reservasConcurrentesNoGeneranDobleReserva() throws Exception {
+        LocalDate fecha = LocalDate.now().plusYears(3);
+        List<Mesa> mesas = mesaRepository.findByActivaTrue();
+        Cliente cliente = clienteRepository.findAll().get(0);
+
+        List<Reserva> intentos = new ArrayList<>();
+        for (int repeticion = 0; repeticion < INTENTOS_POR_HORARIO; repeticion++) {
+            for (Mesa mesa : mesas) {
+                for (int h = 0; h < HORAS; h++) {
+                    Reserva intento = new Reserva(fecha, LocalTime.of(8, 0).plusMinutes((long) DURACION * h), 1,
+                            cliente, mesa);
+                    intento.setDuracionMinutos(DURACION);
+                    intentos.add(intento);
+                }
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch largada = new CountDownLatch(1);
+        AtomicInteger exitosas = new AtomicInteger();
+        List<Future<?>> tareas = new ArrayList<>();
+        for (Reserva intento : intentos) {
+            tareas.add(executor.submit(() -> {
+                largada.await();
+                if (reservaService.crear(intento).isPresent()) {
+                    exitosas.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        largada.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get();
+        }
+        executor.shutdown();
+
+        Map<String, Integer> activasPorHorario = new HashMap<>();
+        for (Reserva reserva : reservaRepository.findByFechaAndEstado(fecha, "ACTIVA")) {
+            activasPorHorario.merge(reserva.getMesa().getId() + "@" + reserva.getHora(), 1, Integer::sum);
+        }
+        int horarios = mesas.size() * HORAS;
+        assertEquals(horarios, exitosas.get());
+        assertEquals(horarios, activasPorHorario.size());
+        activasPorHorario.forEach((horario, cantidad) -> assertEquals(1, cantidad, horario));
+    }
+
+    @Test
+    void unaReservaQueSeSolapaConOtraDeLaMismaMesaSeRechaza() {
+        LocalDate fecha = LocalDate.now().plusYears(5);
+        Mesa mesa = mesaRepository.findByActivaTrue().get(0);
+        Cliente cliente = clienteRepository.findAll().get(0);
+
+        Reserva primera = new Reserva(fecha, LocalTime.of(19, 30), 1, cliente, mesa);
+        primera.setDuracionMinutos(DURACION);
+        assertTrue(reservaService.crear(primera).isPresent());
+
+        Reserva solapada = new Reserva(fecha, LocalTime.of(19, 45), 1, cliente, mesa);
+        solapada.setDuracionMinutos(DURACION);
+        assertTrue(reservaService.crear(solapada).isEmpty());
+
+        Reserva anteriorSolapada = new Reserva(fecha, LocalTime.of(18, 15), 1, cliente, mesa);
+        anteriorSolapada.setDuracionMinutos(DURACION);
+        assertTrue(reservaService.crear(anteriorSolapada).isEmpty());
+
+        Reserva siguiente = new Reserva(fecha, LocalTime.of(21, 0), 1, cliente, mesa);
+        siguiente.setDuracionMinutos(DURACION);
+        assertTrue(reservaService.crear(siguiente).isPresent());
+
+        reservaService.cancelar(primera.getId());
+        Reserva reemplazo = new Reserva(fecha, LocalTime.of(19, 30), 1, cliente, mesa);
+        reemplazo.setDuracionMinutos(DURACION);
+        assertTrue(reservaService.crear(reemplazo).isPresent());
+    }
+
+    @Test
+    void laBaseDeDatosRechazaDosReservasActivasEnElMismoHorario() {
+        LocalDate fecha = LocalDate.now().plusYears(4);
+        Mesa mesa = mesaRepository.findByActivaTrue().get(0);
+        Cliente cliente = clienteRepository.findAll().get(0);
+        LocalTime hora = LocalTime.of(20, 0);
+
+        Reserva cancelada = new Reserva(fecha, hora, 1, cliente, mesa);
+        cancelada.setEstado("CANCELADA");
+        reservaRepository.saveAndFlush(cancelada);
+        reservaRepository.saveAndFlush(new Reserva(fecha, hora, 1, cliente, mesa));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> reservaRepository.saveAndFlush(new Reserva(fecha, hora, 1, cliente, mesa)));
+    }
+}
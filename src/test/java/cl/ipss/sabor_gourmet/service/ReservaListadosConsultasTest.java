@@ -0,0 +1,120 @@
+package cl.ipss.sabor_gourmet.service;
+
+import cl.ipss.sabor_gourmet.dto.ReservaFiltro;
+import cl.ipss.sabor_gourmet.dto.ReservaResumen;
+import cl.ipss.sabor_gourmet.model.Cliente;
+import cl.ipss.sabor_gourmet.model.Mesa;
+import cl.ipss.sabor_gourmet.model.Reserva;
+import cl.ipss.sabor_gourmet.repository.ClienteRepository;
+import cl.ipss.sabor_gourmet.repository.MesaRepository;
+import cl.ipss.sabor_gourmet.repository.ReservaRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Verifica con las estadísticas de Hibernate que los listados de reservas (dashboard,
+ * reservas del administrador y mis reservas) hacen una sola consulta por página,
+ * sin importar cuántas reservas, clientes y mesas distintos aparezcan en ella.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reservas-listados",
+        "spring.jpa.show-sql=false",
+        "sabor.hibernate.estadisticas=true",
+        // Las reservas se crean directo en el repositorio, sin pasar por el servicio que invalida
+        "sabor.reservas.lectura-compartida.ttl-ms=0"
+})
+class ReservaListadosConsultasTest {
+
+    private static final int DURACION = 90;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private MesaRepository mesaRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void losListadosHacenUnaConsultaPorPaginaSinImportarLasFilas() {
+        LocalDate fecha = LocalDate.now().plusYears(4);
+        List<Mesa> mesas = mesaRepository.findByActivaTrue();
+        Cliente habitual = clienteRepository.save(new Cliente("Cliente Habitual", "habitual@listados.cl", "911111111"));
+
+        crearReservas(fecha, mesas, habitual, 0, 2);
+        assertEquals(1, consultas(() -> reservaService.listarActivasPorFecha(fecha)));
+        assertEquals(1, consultas(() -> reservaService.listarFiltradas(delDia(fecha), ScrollPosition.keyset()).getContent()));
+        assertEquals(1, consultas(() -> reservaService.listarPorCliente(habitual.getId(), ScrollPosition.keyset()).getContent()));
+
+        // Muchas más filas, con un cliente distinto por reserva y todas las mesas activas
+        crearReservas(fecha, mesas, habitual, 2, mesas.size() * 10);
+        assertEquals(1, consultas(() -> reservaService.listarActivasPorFecha(fecha)));
+        assertEquals(1, consultas(() -> reservaService.listarFiltradas(delDia(fecha), ScrollPosition.keyset()).getContent()));
+        assertEquals(1, consultas(() -> reservaService.listarPorCliente(habitual.getId(), ScrollPosition.keyset()).getContent()));
+
+        assertEquals(mesas.size() * 10, reservaService.listarActivasPorFecha(fecha).size());
+        ReservaResumen ultima = reservaService.listarPorCliente(habitual.getId(), ScrollPosition.keyset()).getContent().get(0);
+        assertEquals("habitual@listados.cl", ultima.getClienteEmail());
+        assertEquals(mesas.get(((mesas.size() * 10) - 2) % mesas.size()).getNumero(), ultima.getMesaNumero());
+    }
+
+    /**
+     * Crea reservas [desde, hasta) repartidas por mesa y hora; las pares son del cliente habitual
+     * y las impares de un cliente nuevo cada una.
+     */
+    private void crearReservas(LocalDate fecha, List<Mesa> mesas, Cliente habitual, int desde, int hasta) {
+        List<Reserva> reservas = new ArrayList<>();
+        for (int i = desde; i < hasta; i++) {
+            Cliente cliente = i % 2 == 0 ? habitual
+                    : clienteRepository.save(new Cliente("Cliente " + i, "cliente" + i + "@listados.cl", "9" + i));
+            Reserva reserva = new Reserva(fecha, LocalTime.of(8, 0).plusMinutes((long) DURACION * (i / mesas.size())),
+                    1, cliente, mesas.get(i % mesas.size()));
+            reserva.setDuracionMinutos(DURACION);
+            reservas.add(reserva);
+        }
+        reservaRepository.saveAll(reservas);
+    }
+
+    private static ReservaFiltro delDia(LocalDate fecha) {
+        ReservaFiltro filtro = new ReservaFiltro();
+        filtro.setFechaInicio(fecha);
+        filtro.setFechaFin(fecha);
+        return filtro;
+    }
+
+    /**
+     * Cuenta las sentencias preparadas mientras se obtiene y se recorre una página,
+     * leyendo los datos de cliente y mesa como lo hace la vista.
+     */
+    private long consultas(Supplier<List<ReservaResumen>> listado) {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+        for (ReservaResumen reserva : listado.get()) {
+            assertNotNull(reserva.getClienteNombre());
+            assertNotNull(reserva.getClienteEmail());
+            assertNotNull(reserva.getMesaNumero());
+        }
+        return estadisticas.getPrepareStatementCount();
+    }
+}